@@ -67,7 +67,14 @@ public abstract class ProxyServer
     public abstract Logger getLogger();
 
     /**
-     * Return all players currently connected.
+     * Return all players currently connected. The default implementation
+     * returns a live, read only view rather than a snapshot: players who join
+     * or leave while it is being iterated may or may not be seen, and its
+     * size may change between calls. Iterating it never throws a
+     * {@link java.util.ConcurrentModificationException}. Plugins needing a
+     * stable collection, for example to index into or to compare sizes,
+     * should copy it first, such as with
+     * {@code new ArrayList<>( getPlayers() )}.
      *
      * @return all connected players
      */
@@ -230,9 +237,8 @@ public abstract class ProxyServer
     public abstract TaskScheduler getScheduler();
 
     /**
-     * Get the current number of connected users. The default implementation is
-     * more efficient than {@link #getPlayers()} as it does not take a lock or
-     * make a copy.
+     * Get the current number of connected users. This is at least as cheap as
+     * the size of {@link #getPlayers()}, and is the same count.
      *
      * @return the current number of connected players
      */
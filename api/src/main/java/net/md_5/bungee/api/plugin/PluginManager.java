@@ -4,6 +4,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.eventbus.Subscribe;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.File;
 import java.io.InputStream;
 import java.lang.reflect.Method;
@@ -14,6 +15,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -21,16 +23,21 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.logging.Level;
 import lombok.RequiredArgsConstructor;
+import net.md_5.bungee.api.Callback;
 import net.md_5.bungee.api.ChatColor;
 import net.md_5.bungee.api.CommandSender;
 import net.md_5.bungee.api.ProxyServer;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
 import net.md_5.bungee.event.EventBus;
 import net.md_5.bungee.event.EventHandler;
+import net.md_5.bungee.event.EventHandlerMethod;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.Constructor;
 import org.yaml.snakeyaml.introspector.PropertyUtils;
@@ -43,6 +50,7 @@ import org.yaml.snakeyaml.introspector.PropertyUtils;
 public class PluginManager
 {
 
+    private static final int DEFAULT_ASYNC_EVENT_THREADS = 16;
     /*========================================================================*/
     private final ProxyServer proxy;
     /*========================================================================*/
@@ -53,6 +61,7 @@ public class PluginManager
     private Map<String, PluginDescription> toLoad = new HashMap<>();
     private final Multimap<Plugin, Command> commandsByPlugin = ArrayListMultimap.create();
     private final Multimap<Plugin, Listener> listenersByPlugin = ArrayListMultimap.create();
+    private final ThreadPoolExecutor eventExecutor = createEventExecutor();
 
     @SuppressWarnings("unchecked")
     public PluginManager(ProxyServer proxy)
@@ -411,6 +420,107 @@ public class PluginManager
         return event;
     }
 
+    /**
+     * Dispatch an event to all subscribed listeners, without waiting for
+     * handlers marked {@link EventHandler#async()}. Those, and any handlers
+     * after them, are called on a fixed size pool of worker threads, so that
+     * they may block without holding up the calling thread. Handlers are
+     * still called one at a time in priority order. When every worker is busy
+     * the event waits for one, it is never called on the calling thread.
+     *
+     * @param <T> the event type
+     * @param event the event to call
+     * @param callback called once every handler has been called, either on
+     * the calling thread or on a worker thread
+     */
+    public <T extends Event> void callEvent(final T event, final Callback<T> callback)
+    {
+        Preconditions.checkNotNull( event, "event" );
+        Preconditions.checkNotNull( callback, "callback" );
+
+        eventBus.post( event, eventExecutor, new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                event.postCall();
+                callback.done( event, null );
+            }
+        } );
+    }
+
+    /**
+     * Checks whether any listener registered for an event has a handler marked
+     * {@link EventHandler#async()}. If not,
+     * {@link #callEvent(Event, Callback)} always finishes before returning.
+     *
+     * @param eventClass the exact event class, subclasses are not included
+     * @return whether calling the event with a callback may finish later
+     */
+    public boolean hasAsyncListeners(Class<? extends Event> eventClass)
+    {
+        return eventBus.hasAsyncHandlers( eventClass );
+    }
+
+    /**
+     * Checks whether any listener is registered for an event. Code calling an
+     * event very often may skip creating and calling it when this returns
+     * false, as long as it then carries on as if the event was left
+     * unchanged.
+     *
+     * @param eventClass the exact event class, subclasses are not included
+     * @return whether calling the event would reach any listener
+     */
+    public boolean hasListeners(Class<? extends Event> eventClass)
+    {
+        return eventBus.hasHandlers( eventClass );
+    }
+
+    /**
+     * Checks whether the time spent in each event handler is being recorded.
+     *
+     * @return whether event profiling is enabled
+     */
+    public boolean isEventProfiling()
+    {
+        return eventBus.isProfiling();
+    }
+
+    /**
+     * Starts or stops recording the time spent in each event handler. While
+     * enabled every handler call is timed, which adds a small cost to every
+     * event.
+     *
+     * @param profiling whether to record handler timings
+     */
+    public void setEventProfiling(boolean profiling)
+    {
+        eventBus.setProfiling( profiling );
+    }
+
+    /**
+     * Gets every registered event handler, along with the timings recorded for
+     * it while profiling, grouped by the plugin which registered its listener.
+     * Handlers registered by the proxy itself are under a null key.
+     *
+     * @return a snapshot of the registered handlers by plugin
+     */
+    public Multimap<Plugin, EventHandlerMethod> getEventHandlers()
+    {
+        Map<Object, Plugin> owners = new IdentityHashMap<>();
+        for ( Map.Entry<Plugin, Listener> entry : listenersByPlugin.entries() )
+        {
+            owners.put( entry.getValue(), entry.getKey() );
+        }
+
+        Multimap<Plugin, EventHandlerMethod> handlers = ArrayListMultimap.create();
+        for ( EventHandlerMethod handler : eventBus.getHandlers() )
+        {
+            handlers.put( owners.get( handler.getListener() ), handler );
+        }
+        return handlers;
+    }
+
     /**
      * Register a {@link Listener} for receiving called events. Methods in this
      * Object which wish to receive events must be annotated with the
@@ -455,6 +565,38 @@ public class PluginManager
         }
     }
 
+    /**
+     * Sets the number of worker threads handlers marked
+     * {@link EventHandler#async()} are called on.
+     *
+     * @param threads the maximum number of async handlers running at once
+     */
+    public void setAsyncEventThreads(int threads)
+    {
+        Preconditions.checkArgument( threads > 0, "threads must be positive" );
+
+        // The core size may never be above the maximum, even in between the two calls
+        if ( threads > eventExecutor.getMaximumPoolSize() )
+        {
+            eventExecutor.setMaximumPoolSize( threads );
+            eventExecutor.setCorePoolSize( threads );
+        } else
+        {
+            eventExecutor.setCorePoolSize( threads );
+            eventExecutor.setMaximumPoolSize( threads );
+        }
+    }
+
+    private static ThreadPoolExecutor createEventExecutor()
+    {
+        // Unbounded, as running a handler on the calling thread instead would stall it. Channels waiting on an event
+        // stop reading, so they only ever queue one event each
+        ThreadPoolExecutor executor = new ThreadPoolExecutor( DEFAULT_ASYNC_EVENT_THREADS, DEFAULT_ASYNC_EVENT_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder().setNameFormat( "BungeeCord Event Thread #%1$d" ).setDaemon( true ).build() );
+        executor.allowCoreThreadTimeOut( true );
+        return executor;
+    }
+
     /**
      * Get an unmodifiable collection of all registered commands.
      *
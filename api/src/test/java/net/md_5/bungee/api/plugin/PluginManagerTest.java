@@ -0,0 +1,66 @@
+package net.md_5.bungee.api.plugin;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import net.md_5.bungee.api.Callback;
+import net.md_5.bungee.event.EventBus;
+import net.md_5.bungee.event.EventHandler;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PluginManagerTest
+{
+
+    private final PluginManager pluginManager = new PluginManager( null, null, new EventBus() );
+    private final CountDownLatch release = new CountDownLatch( 1 );
+    private final Set<Thread> threads = Collections.synchronizedSet( new HashSet<Thread>() );
+
+    @Test
+    public void testAsyncSaturated() throws InterruptedException
+    {
+        pluginManager.setAsyncEventThreads( 1 );
+        pluginManager.registerListener( null, new BlockingListener() );
+        Assert.assertTrue( pluginManager.hasAsyncListeners( AsyncTestEvent.class ) );
+
+        final CountDownLatch done = new CountDownLatch( 3 );
+        Callback<AsyncTestEvent> callback = new Callback<AsyncTestEvent>()
+        {
+            @Override
+            public void done(AsyncTestEvent result, Throwable error)
+            {
+                done.countDown();
+            }
+        };
+
+        // With the only worker blocked, the rest have to wait for it rather than run here
+        for ( int i = 0; i < 3; i++ )
+        {
+            pluginManager.callEvent( new AsyncTestEvent(), callback );
+        }
+        Assert.assertEquals( 3, done.getCount() );
+        Assert.assertFalse( threads.contains( Thread.currentThread() ) );
+
+        release.countDown();
+        Assert.assertTrue( done.await( 5, TimeUnit.SECONDS ) );
+        Assert.assertEquals( 1, threads.size() );
+        Assert.assertFalse( threads.contains( Thread.currentThread() ) );
+    }
+
+    public class BlockingListener implements Listener
+    {
+
+        @EventHandler(async = true)
+        public void onEvent(AsyncTestEvent event) throws InterruptedException
+        {
+            threads.add( Thread.currentThread() );
+            release.await();
+        }
+    }
+
+    public static class AsyncTestEvent extends Event
+    {
+    }
+}
@@ -4,24 +4,36 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import lombok.Getter;
+import lombok.Setter;
 
 public class EventBus
 {
 
-    private final Map<Class<?>, Map<Byte, Map<Object, Method[]>>> byListenerAndPriority = new HashMap<>();
+    private final Map<Class<?>, Map<Byte, Map<Object, EventHandlerMethod[]>>> byListenerAndPriority = new HashMap<>();
     private final Map<Class<?>, EventHandlerMethod[]> byEventBaked = new ConcurrentHashMap<>();
+    private final Set<Class<?>> withAsyncHandlers = Collections.newSetFromMap( new ConcurrentHashMap<Class<?>, Boolean>() );
     private final Lock lock = new ReentrantLock();
     private final Logger logger;
+    /**
+     * Whether the time spent in each handler is recorded into its
+     * {@link EventHandlerMethod#getTimings() timings}.
+     */
+    @Getter
+    @Setter
+    private volatile boolean profiling;
 
     public EventBus()
     {
@@ -39,25 +51,131 @@ public class EventBus
 
         if ( handlers != null )
         {
+            boolean profile = profiling;
             for ( EventHandlerMethod method : handlers )
             {
-                try
-                {
-                    method.invoke( event );
-                } catch ( IllegalAccessException ex )
-                {
-                    throw new Error( "Method became inaccessible: " + event, ex );
-                } catch ( IllegalArgumentException ex )
-                {
-                    throw new Error( "Method rejected target/argument: " + event, ex );
-                } catch ( InvocationTargetException ex )
+                invoke( event, method, profile );
+            }
+        }
+    }
+
+    /**
+     * Posts an event, calling handlers marked {@link EventHandler#async()} and
+     * every handler after them on the given executor rather than the calling
+     * thread. Handlers are still called one at a time, in priority order.
+     *
+     * @param event the event to post
+     * @param executor executor to call async handlers on
+     * @param done called once every handler has been called, on whichever
+     * thread called the last one
+     */
+    public void post(Object event, Executor executor, Runnable done)
+    {
+        dispatch( event, byEventBaked.get( event.getClass() ), 0, executor, done );
+    }
+
+    private void dispatch(final Object event, final EventHandlerMethod[] handlers, int from, Executor executor, final Runnable done)
+    {
+        boolean handedOff = false;
+        try
+        {
+            if ( handlers != null )
+            {
+                boolean profile = profiling;
+                for ( int i = from; i < handlers.length; i++ )
                 {
-                    logger.log( Level.WARNING, MessageFormat.format( "Error dispatching event {0} to listener {1}", event, method.getListener() ), ex.getCause() );
+                    if ( executor != null && handlers[i].isAsync() )
+                    {
+                        final int next = i;
+                        executor.execute( new Runnable()
+                        {
+                            @Override
+                            public void run()
+                            {
+                                // Already off the calling thread, so the rest can be called directly
+                                dispatch( event, handlers, next, null, done );
+                            }
+                        } );
+                        handedOff = true;
+                        return;
+                    }
+                    invoke( event, handlers[i], profile );
                 }
             }
+        } finally
+        {
+            // Even if a handler could not be invoked, the caller may be waiting on done, for example with reads paused
+            if ( !handedOff )
+            {
+                done.run();
+            }
+        }
+    }
+
+    private void invoke(Object event, EventHandlerMethod method, boolean profile)
+    {
+        long start = ( profile ) ? System.nanoTime() : 0;
+        try
+        {
+            method.invoke( event );
+        } catch ( IllegalAccessException ex )
+        {
+            throw new Error( "Method became inaccessible: " + event, ex );
+        } catch ( IllegalArgumentException ex )
+        {
+            throw new Error( "Method rejected target/argument: " + event, ex );
+        } catch ( InvocationTargetException ex )
+        {
+            logger.log( Level.WARNING, MessageFormat.format( "Error dispatching event {0} to listener {1}", event, method.getListener() ), ex.getCause() );
+        }
+
+        if ( profile )
+        {
+            method.getTimings().record( System.nanoTime() - start );
         }
     }
 
+    /**
+     * Checks whether any handlers are registered for an event class. Like
+     * {@link #post(Object)}, this only considers handlers for exactly that
+     * class.
+     *
+     * @param eventClass the event class
+     * @return whether posting an event of the class would call any handler
+     */
+    public boolean hasHandlers(Class<?> eventClass)
+    {
+        return byEventBaked.containsKey( eventClass );
+    }
+
+    /**
+     * Checks whether any handlers marked {@link EventHandler#async()} are
+     * registered for an event class.
+     *
+     * @param eventClass the event class
+     * @return whether posting an event of the class with an executor would
+     * call any handler on it
+     */
+    public boolean hasAsyncHandlers(Class<?> eventClass)
+    {
+        return withAsyncHandlers.contains( eventClass );
+    }
+
+    /**
+     * Gets every handler currently registered, in no particular order.
+     *
+     * @return a snapshot of the registered handlers
+     */
+    public List<EventHandlerMethod> getHandlers()
+    {
+        List<EventHandlerMethod> handlers = new ArrayList<>();
+        for ( EventHandlerMethod[] baked : byEventBaked.values() )
+        {
+            Collections.addAll( handlers, baked );
+        }
+        return handlers;
+    }
+
     private Map<Class<?>, Map<Byte, Set<Method>>> findHandlers(Object listener)
     {
         Map<Class<?>, Map<Byte, Set<Method>>> handler = new HashMap<>();
@@ -101,7 +219,7 @@ public class EventBus
         {
             for ( Map.Entry<Class<?>, Map<Byte, Set<Method>>> e : handler.entrySet() )
             {
-                Map<Byte, Map<Object, Method[]>> prioritiesMap = byListenerAndPriority.get( e.getKey() );
+                Map<Byte, Map<Object, EventHandlerMethod[]>> prioritiesMap = byListenerAndPriority.get( e.getKey() );
                 if ( prioritiesMap == null )
                 {
                     prioritiesMap = new HashMap<>();
@@ -109,14 +227,20 @@ public class EventBus
                 }
                 for ( Map.Entry<Byte, Set<Method>> entry : e.getValue().entrySet() )
                 {
-                    Map<Object, Method[]> currentPriorityMap = prioritiesMap.get( entry.getKey() );
+                    Map<Object, EventHandlerMethod[]> currentPriorityMap = prioritiesMap.get( entry.getKey() );
                     if ( currentPriorityMap == null )
                     {
                         currentPriorityMap = new HashMap<>();
                         prioritiesMap.put( entry.getKey(), currentPriorityMap );
                     }
-                    Method[] baked = new Method[ entry.getValue().size() ];
-                    currentPriorityMap.put( listener, entry.getValue().toArray( baked ) );
+                    // Created once here, as building their invokers is not free
+                    EventHandlerMethod[] baked = new EventHandlerMethod[ entry.getValue().size() ];
+                    int i = 0;
+                    for ( Method method : entry.getValue() )
+                    {
+                        baked[i++] = new EventHandlerMethod( listener, method );
+                    }
+                    currentPriorityMap.put( listener, baked );
                 }
                 bakeHandlers( e.getKey() );
             }
@@ -134,12 +258,12 @@ public class EventBus
         {
             for ( Map.Entry<Class<?>, Map<Byte, Set<Method>>> e : handler.entrySet() )
             {
-                Map<Byte, Map<Object, Method[]>> prioritiesMap = byListenerAndPriority.get( e.getKey() );
+                Map<Byte, Map<Object, EventHandlerMethod[]>> prioritiesMap = byListenerAndPriority.get( e.getKey() );
                 if ( prioritiesMap != null )
                 {
                     for ( Byte priority : e.getValue().keySet() )
                     {
-                        Map<Object, Method[]> currentPriority = prioritiesMap.get( priority );
+                        Map<Object, EventHandlerMethod[]> currentPriority = prioritiesMap.get( priority );
                         if ( currentPriority != null )
                         {
                             currentPriority.remove( listener );
@@ -171,7 +295,7 @@ public class EventBus
      */
     private void bakeHandlers(Class<?> eventClass)
     {
-        Map<Byte, Map<Object, Method[]>> handlersByPriority = byListenerAndPriority.get( eventClass );
+        Map<Byte, Map<Object, EventHandlerMethod[]>> handlersByPriority = byListenerAndPriority.get( eventClass );
         if ( handlersByPriority != null )
         {
             List<EventHandlerMethod> handlersList = new ArrayList<>( handlersByPriority.size() * 2 );
@@ -181,23 +305,33 @@ public class EventBus
             byte value = Byte.MIN_VALUE;
             do
             {
-                Map<Object, Method[]> handlersByListener = handlersByPriority.get( value );
+                Map<Object, EventHandlerMethod[]> handlersByListener = handlersByPriority.get( value );
                 if ( handlersByListener != null )
                 {
-                    for ( Map.Entry<Object, Method[]> listenerHandlers : handlersByListener.entrySet() )
+                    for ( EventHandlerMethod[] listenerHandlers : handlersByListener.values() )
                     {
-                        for ( Method method : listenerHandlers.getValue() )
-                        {
-                            EventHandlerMethod ehm = new EventHandlerMethod( listenerHandlers.getKey(), method );
-                            handlersList.add( ehm );
-                        }
+                        Collections.addAll( handlersList, listenerHandlers );
                     }
                 }
             } while ( value++ < Byte.MAX_VALUE );
             byEventBaked.put( eventClass, handlersList.toArray( new EventHandlerMethod[ handlersList.size() ] ) );
+
+            boolean async = false;
+            for ( EventHandlerMethod method : handlersList )
+            {
+                async |= method.isAsync();
+            }
+            if ( async )
+            {
+                withAsyncHandlers.add( eventClass );
+            } else
+            {
+                withAsyncHandlers.remove( eventClass );
+            }
         } else
         {
             byEventBaked.remove( eventClass );
+            withAsyncHandlers.remove( eventClass );
         }
     }
 }
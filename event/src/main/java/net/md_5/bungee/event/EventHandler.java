@@ -25,4 +25,14 @@ public @interface EventHandler
      * @return handler priority
      */
     byte priority() default EventPriority.NORMAL;
+
+    /**
+     * Define whether the event handler may block, for example on a database
+     * lookup. Where the caller of the event supports it, such handlers, and
+     * any called after them, are run on a worker thread instead of the thread
+     * which called the event. Otherwise they are called as normal.
+     *
+     * @return whether the handler should be called off the calling thread
+     */
+    boolean async() default false;
 }
@@ -1,21 +1,142 @@
 package net.md_5.bungee.event;
 
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import lombok.AllArgsConstructor;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
 import lombok.Getter;
 
-@AllArgsConstructor
 public class EventHandlerMethod
 {
 
+    private static final MethodType INVOKER_TYPE = MethodType.methodType( void.class, Object.class, Object.class );
+    private static final int ALL_MODES = MethodHandles.Lookup.PUBLIC | MethodHandles.Lookup.PRIVATE | MethodHandles.Lookup.PROTECTED | MethodHandles.Lookup.PACKAGE;
+    // Invokers take the listener as an argument, so one is shared by every listener of a class
+    private static final ClassValue<ConcurrentMap<Method, BiConsumer<Object, Object>>> INVOKERS = new ClassValue<ConcurrentMap<Method, BiConsumer<Object, Object>>>()
+    {
+        @Override
+        protected ConcurrentMap<Method, BiConsumer<Object, Object>> computeValue(Class<?> type)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    //
     @Getter
     private final Object listener;
     @Getter
     private final Method method;
+    // Generated class calling the method directly, or null to fall back to reflection
+    private final BiConsumer<Object, Object> invoker;
+    private final Class<?> eventType;
+    @Getter
+    private final boolean async;
+    @Getter
+    private final EventHandlerTimings timings = new EventHandlerTimings();
+
+    public EventHandlerMethod(Object listener, Method method)
+    {
+        // A listener of the wrong class is left to reflection, so it fails the same way
+        this( listener, method, method.getDeclaringClass().isInstance( listener ) ? getInvoker( method ) : null );
+    }
+
+    EventHandlerMethod(Object listener, Method method, BiConsumer<Object, Object> invoker)
+    {
+        this.listener = listener;
+        this.method = method;
+        this.invoker = invoker;
+        this.eventType = method.getParameterTypes()[0];
+
+        EventHandler annotation = method.getAnnotation( EventHandler.class );
+        this.async = annotation != null && annotation.async();
+    }
 
     public void invoke(Object event) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException
     {
-        method.invoke( listener, event );
+        if ( invoker == null )
+        {
+            method.invoke( listener, event );
+            return;
+        }
+
+        // Checked up front, as a failed cast inside the invoker looks the same as one thrown by the handler
+        if ( event != null && !eventType.isInstance( event ) )
+        {
+            throw new IllegalArgumentException( "argument type mismatch" );
+        }
+
+        try
+        {
+            invoker.accept( listener, event );
+        } catch ( Throwable t )
+        {
+            throw new InvocationTargetException( t );
+        }
+    }
+
+    private static BiConsumer<Object, Object> getInvoker(Method method)
+    {
+        // Only handlers reflection could call are sped up, anything else still fails the same way
+        if ( !Modifier.isPublic( method.getModifiers() ) || !Modifier.isPublic( method.getDeclaringClass().getModifiers() ) )
+        {
+            return null;
+        }
+
+        ConcurrentMap<Method, BiConsumer<Object, Object>> invokers = INVOKERS.get( method.getDeclaringClass() );
+        BiConsumer<Object, Object> invoker = invokers.get( method );
+        if ( invoker == null )
+        {
+            invoker = createInvoker( method );
+            if ( invoker != null )
+            {
+                invokers.putIfAbsent( method, invoker );
+            }
+        }
+
+        return invoker;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> createInvoker(Method method)
+    {
+        if ( Modifier.isStatic( method.getModifiers() ) || method.getParameterTypes()[0].isPrimitive() )
+        {
+            return null;
+        }
+
+        try
+        {
+            // The generated class must be defined alongside the listener, so needs a lookup with full access to it
+            MethodHandles.Lookup lookup = privateLookup( method.getDeclaringClass() );
+            MethodType type = MethodType.methodType( void.class, method.getDeclaringClass(), method.getParameterTypes()[0] );
+
+            return (BiConsumer<Object, Object>) LambdaMetafactory.metafactory( lookup, "accept", MethodType.methodType( BiConsumer.class ),
+                    INVOKER_TYPE, lookup.unreflect( method ), type ).getTarget().invokeWithArguments();
+        } catch ( Throwable t )
+        {
+            // Not allowed for this class on this Java version
+            return null;
+        }
+    }
+
+    private static MethodHandles.Lookup privateLookup(Class<?> clazz) throws ReflectiveOperationException
+    {
+        try
+        {
+            // Java 9+
+            Method privateLookupIn = MethodHandles.class.getMethod( "privateLookupIn", Class.class, MethodHandles.Lookup.class );
+            return (MethodHandles.Lookup) privateLookupIn.invoke( null, clazz, MethodHandles.lookup() );
+        } catch ( NoSuchMethodException ex )
+        {
+            // Java 8 has no public way to get a lookup for a class in another class loader
+            Constructor<MethodHandles.Lookup> constructor = MethodHandles.Lookup.class.getDeclaredConstructor( Class.class, int.class );
+            constructor.setAccessible( true );
+            return constructor.newInstance( clazz, ALL_MODES );
+        }
     }
 }
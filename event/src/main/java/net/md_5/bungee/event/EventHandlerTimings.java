@@ -0,0 +1,113 @@
+package net.md_5.bungee.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.Getter;
+
+/**
+ * Time spent in a single event handler, recorded while the owning
+ * {@link EventBus} is profiling. Samples are counted in power of two buckets,
+ * so percentiles are only accurate to within a factor of two, but recording
+ * one never allocates or locks.
+ */
+public class EventHandlerTimings
+{
+
+    private final AtomicLongArray buckets = new AtomicLongArray( Long.SIZE );
+    private final AtomicLong max = new AtomicLong();
+    /**
+     * Name of the thread the slowest call ran on, or null if nothing has been
+     * recorded.
+     */
+    @Getter
+    private volatile String maxThread;
+
+    /**
+     * Records a single call of the handler.
+     *
+     * @param nanos time the call took, in nanoseconds
+     */
+    public void record(long nanos)
+    {
+        nanos = Math.max( nanos, 0 );
+        buckets.incrementAndGet( Long.SIZE - Long.numberOfLeadingZeros( nanos ) );
+
+        long current;
+        while ( nanos > ( current = max.get() ) )
+        {
+            if ( max.compareAndSet( current, nanos ) )
+            {
+                maxThread = Thread.currentThread().getName();
+                break;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of calls recorded.
+     *
+     * @return the number of calls
+     */
+    public long getCount()
+    {
+        long count = 0;
+        for ( int i = 0; i < buckets.length(); i++ )
+        {
+            count += buckets.get( i );
+        }
+        return count;
+    }
+
+    /**
+     * Gets the time taken by the slowest call recorded.
+     *
+     * @return the longest call, in nanoseconds
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * Gets an upper bound on the time taken by the given fraction of calls.
+     *
+     * @param percentile the fraction of calls, between 0 and 1
+     * @return the time, in nanoseconds, or 0 if nothing has been recorded
+     */
+    public long getPercentile(double percentile)
+    {
+        long[] counts = new long[ buckets.length() ];
+        long count = 0;
+        for ( int i = 0; i < counts.length; i++ )
+        {
+            counts[i] = buckets.get( i );
+            count += counts[i];
+        }
+
+        long target = Math.max( (long) Math.ceil( count * percentile ), 1 );
+        long seen = 0;
+        for ( int i = 0; i < counts.length; i++ )
+        {
+            seen += counts[i];
+            if ( seen >= target )
+            {
+                // Bucket i holds calls shorter than 2^i nanoseconds
+                return Math.min( ( 1L << i ) - 1, getMax() );
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Discards everything recorded so far.
+     */
+    public void reset()
+    {
+        for ( int i = 0; i < buckets.length(); i++ )
+        {
+            buckets.set( i, 0 );
+        }
+        max.set( 0 );
+        maxThread = null;
+    }
+}
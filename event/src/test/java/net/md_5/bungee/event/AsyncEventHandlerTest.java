@@ -0,0 +1,165 @@
+package net.md_5.bungee.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AsyncEventHandlerTest
+{
+
+    private final EventBus bus = new EventBus();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final List<String> called = Collections.synchronizedList( new ArrayList<String>() );
+    private final List<Thread> threads = Collections.synchronizedList( new ArrayList<Thread>() );
+
+    @After
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testAsync() throws InterruptedException
+    {
+        bus.register( this );
+        Assert.assertTrue( bus.hasAsyncHandlers( AsyncTestEvent.class ) );
+
+        final CountDownLatch done = new CountDownLatch( 1 );
+        bus.post( new AsyncTestEvent(), executor, new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                threads.add( Thread.currentThread() );
+                done.countDown();
+            }
+        } );
+
+        Assert.assertTrue( done.await( 5, TimeUnit.SECONDS ) );
+        Assert.assertEquals( "[first, blocking, last]", called.toString() );
+        Assert.assertEquals( Thread.currentThread(), threads.get( 0 ) );
+        // Everything from the async handler on runs on the executor, including the callback
+        Assert.assertNotEquals( Thread.currentThread(), threads.get( 1 ) );
+        Assert.assertEquals( threads.get( 1 ), threads.get( 2 ) );
+        Assert.assertEquals( threads.get( 1 ), threads.get( 3 ) );
+
+        bus.unregister( this );
+        Assert.assertFalse( bus.hasAsyncHandlers( AsyncTestEvent.class ) );
+    }
+
+    @Test
+    public void testWithoutExecutor()
+    {
+        bus.register( this );
+        bus.post( new AsyncTestEvent() );
+
+        Assert.assertEquals( "[first, blocking, last]", called.toString() );
+        for ( Thread thread : threads )
+        {
+            Assert.assertEquals( Thread.currentThread(), thread );
+        }
+    }
+
+    @Test
+    public void testDoneAfterError() throws InterruptedException
+    {
+        bus.register( new AsyncInaccessibleListener() );
+
+        final CountDownLatch done = new CountDownLatch( 1 );
+        bus.post( new InaccessibleTestEvent(), executor, new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                done.countDown();
+            }
+        } );
+
+        // The handler throws on the worker, but the callback must still be called
+        Assert.assertTrue( done.await( 5, TimeUnit.SECONDS ) );
+    }
+
+    @Test
+    public void testDoneAfterErrorOnCallingThread()
+    {
+        bus.register( new InaccessibleListener() );
+
+        final List<String> done = new ArrayList<>();
+        try
+        {
+            bus.post( new InaccessibleTestEvent(), executor, new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    done.add( "done" );
+                }
+            } );
+            Assert.fail( "Inaccessible handler was called" );
+        } catch ( Error ex )
+        {
+            Assert.assertEquals( "[done]", done.toString() );
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW)
+    public void onFirst(AsyncTestEvent event)
+    {
+        called.add( "first" );
+        threads.add( Thread.currentThread() );
+    }
+
+    @EventHandler(async = true)
+    public void onBlocking(AsyncTestEvent event) throws InterruptedException
+    {
+        Thread.sleep( 10 );
+        called.add( "blocking" );
+        threads.add( Thread.currentThread() );
+    }
+
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onLast(AsyncTestEvent event)
+    {
+        called.add( "last" );
+        threads.add( Thread.currentThread() );
+    }
+
+    public static class AsyncTestEvent
+    {
+    }
+
+    public static class InaccessibleTestEvent
+    {
+    }
+
+    public static class InaccessibleListener
+    {
+
+        // Private, so invoking it fails with an Error rather than a logged exception
+        @EventHandler(priority = EventPriority.HIGH)
+        private void onInaccessible(InaccessibleTestEvent event)
+        {
+        }
+    }
+
+    public static class AsyncInaccessibleListener
+    {
+
+        @EventHandler(async = true)
+        public void onBlocking(InaccessibleTestEvent event)
+        {
+        }
+
+        @EventHandler(priority = EventPriority.HIGH)
+        private void onInaccessibleAfterAsync(InaccessibleTestEvent event)
+        {
+        }
+    }
+}
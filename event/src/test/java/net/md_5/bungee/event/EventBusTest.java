@@ -18,6 +18,38 @@ public class EventBusTest
         Assert.assertEquals( 0, latch.getCount() );
     }
 
+    @Test
+    public void testHasHandlers()
+    {
+        Assert.assertFalse( bus.hasHandlers( FirstEvent.class ) );
+        bus.register( this );
+        Assert.assertTrue( bus.hasHandlers( FirstEvent.class ) );
+        Assert.assertTrue( bus.hasHandlers( SecondEvent.class ) );
+        Assert.assertFalse( bus.hasHandlers( Object.class ) );
+        bus.unregister( this );
+        Assert.assertFalse( bus.hasHandlers( FirstEvent.class ) );
+    }
+
+    @Test
+    public void testProfiling()
+    {
+        bus.register( this );
+        bus.post( new FirstEvent() );
+        for ( EventHandlerMethod handler : bus.getHandlers() )
+        {
+            Assert.assertEquals( 0, handler.getTimings().getCount() );
+        }
+
+        bus.setProfiling( true );
+        bus.post( new SecondEvent() );
+        Assert.assertEquals( 2, bus.getHandlers().size() );
+        for ( EventHandlerMethod handler : bus.getHandlers() )
+        {
+            long expected = ( handler.getMethod().getName().equals( "secondListener" ) ) ? 1 : 0;
+            Assert.assertEquals( expected, handler.getTimings().getCount() );
+        }
+    }
+
     @EventHandler
     public void firstListener(FirstEvent event)
     {
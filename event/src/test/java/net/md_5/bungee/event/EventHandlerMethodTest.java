@@ -0,0 +1,170 @@
+package net.md_5.bungee.event;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class EventHandlerMethodTest
+{
+
+    private static final int BENCHMARK_COUNT = 1 << 23;
+    private static int staticCount;
+
+    @Test
+    public void testInvoke() throws Exception
+    {
+        CountingListener listener = new CountingListener();
+        new EventHandlerMethod( listener, CountingListener.class.getMethod( "onEvent", Event.class ) ).invoke( new Event() );
+        Assert.assertEquals( 1, listener.count );
+
+        new EventHandlerMethod( null, EventHandlerMethodTest.class.getMethod( "onStaticEvent", Event.class ) ).invoke( new Event() );
+        Assert.assertEquals( 1, staticCount );
+    }
+
+    @Test
+    public void testException() throws Exception
+    {
+        EventHandlerMethod method = new EventHandlerMethod( new ThrowingListener(), ThrowingListener.class.getMethod( "onEvent", Event.class ) );
+        try
+        {
+            method.invoke( new Event() );
+            Assert.fail();
+        } catch ( InvocationTargetException ex )
+        {
+            Assert.assertEquals( IllegalStateException.class, ex.getCause().getClass() );
+        }
+    }
+
+    @Test
+    public void testMatchesReflection() throws Exception
+    {
+        Method counting = CountingListener.class.getMethod( "onEvent", Event.class );
+        Method throwing = ThrowingListener.class.getMethod( "onEvent", Event.class );
+
+        assertSameOutcome( new CountingListener(), counting, new Event() );
+        assertSameOutcome( new CountingListener(), counting, null );
+        assertSameOutcome( new CountingListener(), counting, new Object() );
+        assertSameOutcome( new ThrowingListener(), throwing, new Event() );
+        assertSameOutcome( new ThrowingListener(), counting, new Event() );
+        assertSameOutcome( null, counting, new Event() );
+    }
+
+    private static void assertSameOutcome(Object listener, Method method, Object event) throws Exception
+    {
+        EventHandlerMethod generated = new EventHandlerMethod( listener, method );
+        if ( method.getDeclaringClass().isInstance( listener ) )
+        {
+            Field invoker = EventHandlerMethod.class.getDeclaredField( "invoker" );
+            invoker.setAccessible( true );
+            Assert.assertNotNull( "No invoker generated for " + method, invoker.get( generated ) );
+        }
+
+        Assert.assertEquals( outcome( new EventHandlerMethod( listener, method, null ), event ), outcome( generated, event ) );
+    }
+
+    private static String outcome(EventHandlerMethod method, Object event)
+    {
+        try
+        {
+            method.invoke( event );
+            return "returned";
+        } catch ( InvocationTargetException ex )
+        {
+            return "handler threw " + ex.getCause().getClass().getName();
+        } catch ( Exception ex )
+        {
+            return "threw " + ex.getClass().getName();
+        }
+    }
+
+    @Test
+    @Ignore("Benchmark")
+    public void testBenchmark() throws Exception
+    {
+        Method method = CountingListener.class.getMethod( "onEvent", Event.class );
+        Event event = new Event();
+        for ( int listeners : new int[]
+        {
+            1, 10, 50
+        } )
+        {
+            CountingListener[] registered = new CountingListener[ listeners ];
+            EventHandlerMethod[] reflective = new EventHandlerMethod[ listeners ];
+            EventHandlerMethod[] generated = new EventHandlerMethod[ listeners ];
+            for ( int i = 0; i < listeners; i++ )
+            {
+                registered[i] = new CountingListener();
+                reflective[i] = new EventHandlerMethod( registered[i], method, null );
+                generated[i] = new EventHandlerMethod( registered[i], method );
+            }
+            int count = BENCHMARK_COUNT / listeners;
+
+            // Warm up both paths, so neither is measured while still interpreted
+            for ( int i = 0; i < count; i++ )
+            {
+                post( reflective, event );
+                post( generated, event );
+            }
+
+            long start = System.currentTimeMillis();
+            for ( int i = 0; i < count; i++ )
+            {
+                post( reflective, event );
+            }
+            System.out.println( String.format( "Reflection Listeners: %d, Iteration: %d, Elapsed: %d ms", listeners, count, System.currentTimeMillis() - start ) );
+
+            start = System.currentTimeMillis();
+            for ( int i = 0; i < count; i++ )
+            {
+                post( generated, event );
+            }
+            System.out.println( String.format( "Invoker Listeners: %d, Iteration: %d, Elapsed: %d ms", listeners, count, System.currentTimeMillis() - start ) );
+
+            Assert.assertEquals( count * 4, registered[0].count );
+        }
+    }
+
+    // The dispatch loop of EventBus.post
+    private static void post(EventHandlerMethod[] handlers, Event event) throws Exception
+    {
+        for ( EventHandlerMethod handler : handlers )
+        {
+            handler.invoke( event );
+        }
+    }
+
+    @EventHandler
+    public static void onStaticEvent(Event event)
+    {
+        staticCount++;
+    }
+
+    public static class Event
+    {
+    }
+
+    public static class CountingListener
+    {
+
+        private int count;
+
+        @EventHandler
+        public void onEvent(Event event)
+        {
+            count++;
+        }
+    }
+
+    public static class ThrowingListener
+    {
+
+        @EventHandler
+        public void onEvent(Event event)
+        {
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package net.md_5.bungee.event;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EventHandlerTimingsTest
+{
+
+    @Test
+    public void testEmpty()
+    {
+        EventHandlerTimings timings = new EventHandlerTimings();
+        Assert.assertEquals( 0, timings.getCount() );
+        Assert.assertEquals( 0, timings.getMax() );
+        Assert.assertEquals( 0, timings.getPercentile( 0.99 ) );
+        Assert.assertNull( timings.getMaxThread() );
+    }
+
+    @Test
+    public void testPercentiles()
+    {
+        EventHandlerTimings timings = new EventHandlerTimings();
+        for ( int i = 0; i < 98; i++ )
+        {
+            timings.record( 1000 );
+        }
+        timings.record( 1000000 );
+        timings.record( 250000000 );
+
+        Assert.assertEquals( 100, timings.getCount() );
+        Assert.assertEquals( 250000000, timings.getMax() );
+        Assert.assertEquals( Thread.currentThread().getName(), timings.getMaxThread() );
+
+        // Percentiles are bucket upper bounds, within a factor of two of the real value
+        long p50 = timings.getPercentile( 0.5 );
+        Assert.assertTrue( p50 >= 1000 && p50 < 2000 );
+        long p99 = timings.getPercentile( 0.99 );
+        Assert.assertTrue( p99 >= 1000000 && p99 < 2000000 );
+        Assert.assertEquals( 250000000, timings.getPercentile( 1 ) );
+
+        timings.reset();
+        Assert.assertEquals( 0, timings.getCount() );
+        Assert.assertEquals( 0, timings.getMax() );
+        Assert.assertNull( timings.getMaxThread() );
+    }
+}
@@ -4,3 +4,4 @@ CXX="g++ -shared -fPIC -O3 -Wall -Werror -I$JAVA_HOME/include/ -I$JAVA_HOME/incl
 
 $CXX src/main/c/NativeCipherImpl.cpp -o src/main/resources/native-cipher.so -lcrypto
 $CXX src/main/c/NativeCompressImpl.cpp -o src/main/resources/native-compress.so -lz
+$CXX src/main/c/LibdeflateCompressImpl.cpp -o src/main/resources/native-libdeflate.so -ldeflate
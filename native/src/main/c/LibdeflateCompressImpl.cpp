@@ -0,0 +1,70 @@
+#include <stdlib.h>
+#include <libdeflate.h>
+#include "net_md_5_bungee_jni_zlib_LibdeflateCompressImpl.h"
+
+typedef unsigned char byte;
+
+static jfieldID consumedID;
+
+void JNICALL Java_net_md_15_bungee_jni_zlib_LibdeflateCompressImpl_initFields(JNIEnv* env, jclass clazz) {
+    // We trust that this field will be there
+    consumedID = env->GetFieldID(clazz, "consumed", "I");
+}
+
+jint throwException(JNIEnv *env, const char* message, int err) {
+    // These can't be static for some unknown reason
+    jclass exceptionClass = env->FindClass("net/md_5/bungee/jni/NativeCodeException");
+    jmethodID exceptionInitID = env->GetMethodID(exceptionClass, "<init>", "(Ljava/lang/String;I)V");
+
+    jstring jMessage = env->NewStringUTF(message);
+
+    jthrowable throwable = (jthrowable) env->NewObject(exceptionClass, exceptionInitID, jMessage, err);
+    return env->Throw(throwable);
+}
+
+void JNICALL Java_net_md_15_bungee_jni_zlib_LibdeflateCompressImpl_end(JNIEnv* env, jobject obj, jlong ctx, jboolean compress) {
+    if (compress) {
+        libdeflate_free_compressor((libdeflate_compressor*) ctx);
+    } else {
+        libdeflate_free_decompressor((libdeflate_decompressor*) ctx);
+    }
+}
+
+jlong JNICALL Java_net_md_15_bungee_jni_zlib_LibdeflateCompressImpl_init(JNIEnv* env, jobject obj, jboolean compress, jint level) {
+    void* ctx = (compress) ? (void*) libdeflate_alloc_compressor(level) : (void*) libdeflate_alloc_decompressor();
+
+    if (!ctx) {
+        throwException(env, "Could not allocate libdeflate context", level);
+    }
+
+    return (jlong) ctx;
+}
+
+jint JNICALL Java_net_md_15_bungee_jni_zlib_LibdeflateCompressImpl_process(JNIEnv* env, jobject obj, jlong ctx, jlong in, jint inLength, jlong out, jint outLength, jboolean compress) {
+    if (compress) {
+        size_t ret = libdeflate_zlib_compress((libdeflate_compressor*) ctx, (byte*) in, inLength, (byte*) out, outLength);
+
+        if (ret == 0) {
+            // Did not fit
+            return -1;
+        }
+
+        env->SetIntField(obj, consumedID, inLength);
+        return ret;
+    }
+
+    size_t actualIn;
+    size_t actualOut;
+    libdeflate_result ret = libdeflate_zlib_decompress_ex((libdeflate_decompressor*) ctx, (byte*) in, inLength, (byte*) out, outLength, &actualIn, &actualOut);
+
+    switch (ret) {
+        case LIBDEFLATE_SUCCESS:
+            env->SetIntField(obj, consumedID, actualIn);
+            return actualOut;
+        case LIBDEFLATE_INSUFFICIENT_SPACE:
+            return -1;
+        default:
+            throwException(env, "Could not decompress data", ret);
+            return 0;
+    }
+}
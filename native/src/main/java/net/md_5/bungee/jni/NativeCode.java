@@ -14,14 +14,32 @@ public final class NativeCode<T>
     private final String name;
     private final Class<? extends T> javaImpl;
     private final Class<? extends T> nativeImpl;
+    private final String dependency;
     //
     private boolean loaded;
 
     public NativeCode(String name, Class<? extends T> javaImpl, Class<? extends T> nativeImpl)
+    {
+        this( name, javaImpl, nativeImpl, null );
+    }
+
+    /**
+     * Creates a loader for a native library linked against a shared library
+     * which may not be installed on every host. If only that dependency is
+     * missing, loading quietly falls back to the Java implementation.
+     *
+     * @param name name of the native library
+     * @param javaImpl implementation used when the native one is not loaded
+     * @param nativeImpl implementation backed by the native library
+     * @param dependency file name of the optional shared library, for example
+     * libdeflate.so.0
+     */
+    public NativeCode(String name, Class<? extends T> javaImpl, Class<? extends T> nativeImpl, String dependency)
     {
         this.name = name;
         this.javaImpl = javaImpl;
         this.nativeImpl = nativeImpl;
+        this.dependency = dependency;
     }
 
     public T newInstance()
@@ -53,6 +71,12 @@ public final class NativeCode<T>
             {
                 try ( InputStream soFile = BungeeCipher.class.getClassLoader().getResourceAsStream( name + ".so" ) )
                 {
+                    if ( soFile == null )
+                    {
+                        // Not built into this jar
+                        return false;
+                    }
+
                     // Else we will create and copy it to a temp file
                     File temp = File.createTempFile( fullName, ".so" );
                     // Don't leave cruft on filesystem
@@ -70,7 +94,11 @@ public final class NativeCode<T>
                     // Can't write to tmp?
                 } catch ( UnsatisfiedLinkError ex )
                 {
-                    System.out.println( "Could not load native library: " + ex.getMessage() );
+                    // Not installed on this host, which is expected for an optional dependency
+                    if ( dependency == null || ex.getMessage() == null || !ex.getMessage().contains( dependency ) )
+                    {
+                        System.out.println( "Could not load native library: " + ex.getMessage() );
+                    }
                 }
             }
         }
@@ -78,6 +106,11 @@ public final class NativeCode<T>
         return loaded;
     }
 
+    public boolean isLoaded()
+    {
+        return loaded;
+    }
+
     public static boolean isSupported()
     {
         return "Linux".equals( System.getProperty( "os.name" ) ) && "amd64".equals( System.getProperty( "os.arch" ) );
@@ -18,4 +18,13 @@ public interface BungeeCipher
     void cipher(ByteBuf in, ByteBuf out) throws GeneralSecurityException;
 
     ByteBuf cipher(ChannelHandlerContext ctx, ByteBuf in) throws GeneralSecurityException;
+
+    /**
+     * Ciphers the readable bytes of a buffer in place. CFB8 outputs exactly
+     * as many bytes as it reads, so no other buffer is needed.
+     *
+     * @param buf the buffer to cipher
+     * @throws GeneralSecurityException if ciphering fails
+     */
+    void cipher(ByteBuf buf) throws GeneralSecurityException;
 }
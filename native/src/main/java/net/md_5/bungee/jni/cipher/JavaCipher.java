@@ -65,6 +65,28 @@ public class JavaCipher implements BungeeCipher
         return heapOut;
     }
 
+    @Override
+    public void cipher(ByteBuf buf) throws ShortBufferException
+    {
+        int readableBytes = buf.readableBytes();
+        if ( buf.hasArray() )
+        {
+            int offset = buf.arrayOffset() + buf.readerIndex();
+            cipher.update( buf.array(), offset, readableBytes, buf.array(), offset );
+        } else
+        {
+            byte[] heap = heapInLocal.get();
+            if ( heap.length < readableBytes )
+            {
+                heap = new byte[ readableBytes ];
+                heapInLocal.set( heap );
+            }
+            buf.getBytes( buf.readerIndex(), heap, 0, readableBytes );
+            cipher.update( heap, 0, readableBytes, heap, 0 );
+            buf.setBytes( buf.readerIndex(), heap, 0, readableBytes );
+        }
+    }
+
     @Override
     public void free()
     {
@@ -62,6 +62,24 @@ public class NativeCipher implements BungeeCipher
         out.writerIndex( out.writerIndex() + length );
     }
 
+    @Override
+    public void cipher(ByteBuf buf) throws GeneralSecurityException
+    {
+        // Smoke tests
+        buf.memoryAddress();
+        Preconditions.checkState( ctx != 0, "Invalid pointer to AES key!" );
+
+        int length = buf.readableBytes();
+        // Older OpenSSL versions will flip if length <= 0
+        if ( length <= 0 )
+        {
+            return;
+        }
+
+        long address = buf.memoryAddress() + buf.readerIndex();
+        nativeCipher.cipher( ctx, address, address, length );
+    }
+
     @Override
     public ByteBuf cipher(ChannelHandlerContext ctx, ByteBuf in) throws GeneralSecurityException
     {
@@ -10,5 +10,15 @@ public interface BungeeZlib
 
     void free();
 
+    /**
+     * Compresses or decompresses all of the readable bytes of in, writing the
+     * result to out. When decompressing, out must already have enough
+     * writable bytes for the whole result, as not every implementation can
+     * grow it part way through.
+     *
+     * @param in the data to process
+     * @param out the buffer to write the result to
+     * @throws DataFormatException if the data could not be decompressed
+     */
     void process(ByteBuf in, ByteBuf out) throws DataFormatException;
 }
@@ -50,27 +50,35 @@ public class JavaZlib implements BungeeZlib
 
         if ( compress )
         {
-            deflater.setInput( inData );
-            deflater.finish();
+            try
+            {
+                deflater.setInput( inData );
+                deflater.finish();
 
-            while ( !deflater.finished() )
+                while ( !deflater.finished() )
+                {
+                    int count = deflater.deflate( buffer );
+                    out.writeBytes( buffer, 0, count );
+                }
+            } finally
             {
-                int count = deflater.deflate( buffer );
-                out.writeBytes( buffer, 0, count );
+                deflater.reset();
             }
-
-            deflater.reset();
         } else
         {
-            inflater.setInput( inData );
+            try
+            {
+                inflater.setInput( inData );
 
-            while ( !inflater.finished() && inflater.getTotalIn() < inData.length )
+                while ( !inflater.finished() && inflater.getTotalIn() < inData.length )
+                {
+                    int count = inflater.inflate( buffer );
+                    out.writeBytes( buffer, 0, count );
+                }
+            } finally
             {
-                int count = inflater.inflate( buffer );
-                out.writeBytes( buffer, 0, count );
+                inflater.reset();
             }
-
-            inflater.reset();
         }
     }
 }
@@ -0,0 +1,21 @@
+package net.md_5.bungee.jni.zlib;
+
+public class LibdeflateCompressImpl
+{
+
+    int consumed;
+
+    static
+    {
+        initFields();
+    }
+
+    static native void initFields();
+
+    native void end(long ctx, boolean compress);
+
+    native long init(boolean compress, int compressionLevel);
+
+    // Processes all of the input in one go, returns -1 if the output did not fit
+    native int process(long ctx, long in, int inLength, long out, int outLength, boolean compress);
+}
@@ -0,0 +1,75 @@
+package net.md_5.bungee.jni.zlib;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import lombok.Getter;
+
+/**
+ * Zlib implementation backed by libdeflate. It has no streaming mode, instead
+ * each call processes the whole packet at once, which is all Minecraft needs.
+ */
+public class LibdeflateZlib implements BungeeZlib
+{
+
+    private static final int DEFAULT_LEVEL = 6;
+    @Getter
+    private final LibdeflateCompressImpl nativeCompress = new LibdeflateCompressImpl();
+    /*============================================================================*/
+    private boolean compress;
+    private long ctx;
+
+    @Override
+    public void init(boolean compress, int level)
+    {
+        free();
+
+        this.compress = compress;
+        this.ctx = nativeCompress.init( compress, ( level == Deflater.DEFAULT_COMPRESSION ) ? DEFAULT_LEVEL : level );
+    }
+
+    @Override
+    public void free()
+    {
+        if ( ctx != 0 )
+        {
+            nativeCompress.end( ctx, compress );
+            ctx = 0;
+        }
+
+        nativeCompress.consumed = 0;
+    }
+
+    @Override
+    public void process(ByteBuf in, ByteBuf out) throws DataFormatException
+    {
+        // Smoke tests
+        in.memoryAddress();
+        out.memoryAddress();
+        Preconditions.checkState( ctx != 0, "Invalid pointer to compress!" );
+
+        int processed;
+        if ( compress )
+        {
+            // Compressed output is rarely larger than the input, so start there and retry with more space in that case
+            out.ensureWritable( in.readableBytes() );
+            while ( ( processed = nativeCompress.process( ctx, in.memoryAddress() + in.readerIndex(), in.readableBytes(), out.memoryAddress() + out.writerIndex(), out.writableBytes(), true ) ) < 0 )
+            {
+                out.ensureWritable( Math.max( out.writableBytes() * 2, 8192 ) );
+            }
+        } else
+        {
+            // Callers know the uncompressed size from the packet, so anything beyond the space they made is corrupt
+            processed = nativeCompress.process( ctx, in.memoryAddress() + in.readerIndex(), in.readableBytes(), out.memoryAddress() + out.writerIndex(), out.writableBytes(), false );
+            if ( processed < 0 )
+            {
+                throw new DataFormatException( "Decompressed data larger than the space available" );
+            }
+        }
+
+        in.readerIndex( in.readerIndex() + nativeCompress.consumed );
+        out.writerIndex( out.writerIndex() + processed );
+        nativeCompress.consumed = 0;
+    }
+}
@@ -11,6 +11,7 @@ import net.md_5.bungee.jni.cipher.JavaCipher;
 import net.md_5.bungee.jni.cipher.NativeCipher;
 import org.junit.Assert;
 import org.junit.FixMethodOrder;
+import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runners.MethodSorters;
 
@@ -77,6 +78,55 @@ public class NativeCipherTest
         testBenchmark( cipher );
     }
 
+    @Test
+    @Ignore("Benchmark")
+    public void testInPlaceBenchmark() throws Exception
+    {
+        if ( NativeCode.isSupported() && factory.load() )
+        {
+            benchmarkInPlace( new NativeCipher() );
+        }
+        benchmarkInPlace( new JavaCipher() );
+    }
+
+    private void benchmarkInPlace(BungeeCipher cipher) throws Exception
+    {
+        byte[] random = new byte[ 1 << 12 ];
+        new Random().nextBytes( random );
+        ByteBuf buf = Unpooled.directBuffer();
+        buf.writeBytes( random );
+        ByteBuf out = Unpooled.directBuffer( random.length );
+
+        // What CipherDecoder did before, and what it does now for unshared direct buffers
+        for ( boolean forEncryption : new boolean[]
+        {
+            true, false
+        } )
+        {
+            cipher.init( forEncryption, secret );
+            long start = System.nanoTime();
+            for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+            {
+                cipher.cipher( buf.duplicate(), out.clear() );
+            }
+            long copying = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+            {
+                cipher.cipher( buf );
+            }
+            long inPlace = System.nanoTime() - start;
+
+            System.out.println( String.format( "%s %s Iteration: %d, Copying: %d ms, In Place: %d ms", cipher.getClass().getSimpleName(),
+                    ( forEncryption ) ? "Encryption" : "Decryption", BENCHMARK_COUNT, copying / 1000000, inPlace / 1000000 ) );
+        }
+
+        cipher.free();
+        buf.release();
+        out.release();
+    }
+
     /**
      * Hackish test which can test both native and fallback ciphers using direct
      * buffers.
@@ -108,9 +158,71 @@ public class NativeCipherTest
         nativePlain.resetReaderIndex();
         Assert.assertEquals( nativePlain, out );
 
+        // Encrypt in place
+        cipher.init( true, secret );
+        cipher.cipher( out );
+        nativeCiphered.resetReaderIndex();
+        Assert.assertEquals( nativeCiphered, out );
+
+        // Decrypt in place
+        cipher.init( false, secret );
+        cipher.cipher( out );
+        Assert.assertEquals( nativePlain, out );
+
         System.out.println( "This cipher works correctly!" );
     }
 
+    @Test
+    public void testNativeStream() throws Exception
+    {
+        if ( NativeCode.isSupported() )
+        {
+            Assert.assertTrue( "Native cipher failed to load!", factory.load() );
+
+            // Split so that the cipher has to carry on between calls, alternating between copying and in place
+            byte[] random = new byte[ 4099 ];
+            new Random().nextBytes( random );
+            ByteBuf plain = Unpooled.directBuffer();
+            plain.writeBytes( random );
+
+            BungeeCipher java = new JavaCipher();
+            java.init( true, secret );
+            ByteBuf ciphered = Unpooled.directBuffer();
+            java.cipher( plain.duplicate(), ciphered );
+
+            Assert.assertEquals( ciphered, cipherChunked( true, plain ) );
+            Assert.assertEquals( plain, cipherChunked( false, ciphered ) );
+        }
+    }
+
+    private ByteBuf cipherChunked(boolean forEncryption, ByteBuf in) throws Exception
+    {
+        in = in.copy();
+        NativeCipher cipher = new NativeCipher();
+        cipher.init( forEncryption, secret );
+        ByteBuf out = Unpooled.directBuffer();
+        int[] chunks = new int[]
+        {
+            1, 7, 8, 9, 15, 16, 17, 100, 1000
+        };
+        for ( int i = 0; in.isReadable(); i++ )
+        {
+            ByteBuf chunk = in.readSlice( Math.min( chunks[i % chunks.length], in.readableBytes() ) );
+            if ( i % 2 == 0 )
+            {
+                cipher.cipher( chunk, out );
+            } else
+            {
+                cipher.cipher( chunk );
+                out.writeBytes( chunk );
+            }
+        }
+        cipher.free();
+        in.release();
+
+        return out;
+    }
+
     public void testBenchmark(BungeeCipher cipher) throws Exception
     {
         // Create input buf
@@ -5,17 +5,22 @@ import io.netty.buffer.Unpooled;
 import java.util.Arrays;
 import java.util.Random;
 import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
 import net.md_5.bungee.jni.NativeCode;
 import net.md_5.bungee.jni.zlib.BungeeZlib;
 import net.md_5.bungee.jni.zlib.JavaZlib;
+import net.md_5.bungee.jni.zlib.LibdeflateZlib;
 import net.md_5.bungee.jni.zlib.NativeZlib;
 import org.junit.Assert;
+import org.junit.Ignore;
 import org.junit.Test;
 
 public class NativeZlibTest
 {
 
+    private static final int BENCHMARK_COUNT = 64;
     private final NativeCode<BungeeZlib> factory = new NativeCode<>( "native-compress", JavaZlib.class, NativeZlib.class );
+    private final NativeCode<BungeeZlib> libdeflateFactory = new NativeCode<>( "native-libdeflate", JavaZlib.class, LibdeflateZlib.class, "libdeflate.so.0" );
 
     @Test
     public void doTest() throws DataFormatException
@@ -24,10 +29,142 @@ public class NativeZlibTest
         {
             Assert.assertTrue( "Native code failed to load!", factory.load() );
             test( factory.newInstance() );
+
+            // Optional, only present when built against libdeflate
+            if ( libdeflateFactory.load() )
+            {
+                test( libdeflateFactory.newInstance() );
+            }
         }
         test( new JavaZlib() );
     }
 
+    @Test
+    public void testLibdeflateOverflow() throws DataFormatException
+    {
+        if ( NativeCode.isSupported() && libdeflateFactory.load() )
+        {
+            BungeeZlib zlib = libdeflateFactory.newInstance();
+            ByteBuf chunk = createChunkData();
+            ByteBuf compressed = Unpooled.directBuffer();
+            zlib.init( true, Deflater.DEFAULT_COMPRESSION );
+            zlib.process( chunk.duplicate(), compressed );
+
+            // One byte short of the real size, as if the packet lied about it
+            ByteBuf uncompressed = Unpooled.directBuffer( chunk.readableBytes() - 1, chunk.readableBytes() - 1 );
+            zlib.init( false, 0 );
+            try
+            {
+                zlib.process( compressed, uncompressed );
+                Assert.fail( "Decompressed into too small a buffer" );
+            } catch ( DataFormatException ex )
+            {
+                // Expected
+            } finally
+            {
+                zlib.free();
+                chunk.release();
+                compressed.release();
+                uncompressed.release();
+            }
+        }
+    }
+
+    @Test
+    @Ignore("Benchmark")
+    public void testBenchmark() throws DataFormatException
+    {
+        ByteBuf chunk = createChunkData();
+
+        if ( NativeCode.isSupported() )
+        {
+            if ( factory.load() )
+            {
+                benchmark( factory.newInstance(), chunk );
+            }
+            if ( libdeflateFactory.load() )
+            {
+                benchmark( libdeflateFactory.newInstance(), chunk );
+            } else
+            {
+                System.out.println( "Skipping libdeflate, native library not built" );
+            }
+        }
+        benchmark( new JavaZlib(), chunk );
+
+        chunk.release();
+    }
+
+    private void benchmark(BungeeZlib zlib, ByteBuf chunk) throws DataFormatException
+    {
+        ByteBuf compressed = Unpooled.directBuffer();
+        ByteBuf uncompressed = Unpooled.directBuffer( chunk.readableBytes() );
+
+        zlib.init( true, Deflater.DEFAULT_COMPRESSION );
+        long start = System.nanoTime();
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            zlib.process( chunk.duplicate(), compressed.clear() );
+        }
+        long compressTime = System.nanoTime() - start;
+
+        zlib.init( false, 0 );
+        start = System.nanoTime();
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            zlib.process( compressed.duplicate(), uncompressed.clear() );
+        }
+        long decompressTime = System.nanoTime() - start;
+        zlib.free();
+
+        Assert.assertEquals( "Results do not match", chunk, uncompressed );
+
+        double megabytes = (double) chunk.readableBytes() * BENCHMARK_COUNT / ( 1 << 20 );
+        System.out.println( String.format( "%s: ratio %.3f, compress %.1f MB/s, decompress %.1f MB/s", zlib.getClass().getSimpleName(),
+                (double) compressed.readableBytes() / chunk.readableBytes(), megabytes / ( compressTime / 1e9 ), megabytes / ( decompressTime / 1e9 ) ) );
+
+        compressed.release();
+        uncompressed.release();
+    }
+
+    // Roughly a 1.15 Chunk Data packet: 16 sections of 4 bit palette indices plus biomes
+    private static ByteBuf createChunkData()
+    {
+        Random random = new Random( 0 );
+        ByteBuf buf = Unpooled.directBuffer();
+
+        for ( int section = 0; section < 16; section++ )
+        {
+            buf.writeShort( 4096 ); // Block count
+            buf.writeByte( 4 ); // Bits per block
+            buf.writeByte( 16 ); // Palette length
+            for ( int i = 0; i < 16; i++ )
+            {
+                buf.writeByte( random.nextInt( 128 ) );
+            }
+
+            // Mostly stone in the bottom sections, mostly air above, with some ores and caves scattered around
+            int common = ( section < 4 ) ? 1 : 0;
+            for ( int i = 0; i < 4096 / 16; i++ )
+            {
+                long value = 0;
+                for ( int j = 0; j < 16; j++ )
+                {
+                    int block = ( random.nextInt( 10 ) == 0 ) ? random.nextInt( 16 ) : common;
+                    value |= (long) block << ( j * 4 );
+                }
+                buf.writeLong( value );
+            }
+        }
+
+        for ( int i = 0; i < 1024; i++ )
+        {
+            buf.writeInt( ( random.nextInt( 8 ) == 0 ) ? random.nextInt( 64 ) : 1 ); // Biomes
+        }
+
+        return buf;
+    }
+
     private void test(BungeeZlib zlib) throws DataFormatException
     {
         System.out.println( "Testing: " + zlib );
@@ -53,7 +190,7 @@ public class NativeZlibTest
 
         zlib.process( originalBuf, compressed );
 
-        ByteBuf uncompressed = Unpooled.directBuffer();
+        ByteBuf uncompressed = Unpooled.directBuffer( dataBuf.length );
 
         zlib.init( false, 0 );
         zlib.process( compressed, uncompressed );
@@ -2,6 +2,7 @@ package net.md_5.bungee.protocol;
 
 import com.google.common.base.Charsets;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -18,12 +19,50 @@ public abstract class DefinedPacket
             throw new OverflowPacketException( String.format( "Cannot send string longer than Short.MAX_VALUE (got %s characters)", s.length() ) );
         }
 
-        byte[] b = s.getBytes( Charsets.UTF_8 );
-        writeVarInt( b.length, buf );
-        buf.writeBytes( b );
+        int bytes = ByteBufUtil.utf8Bytes( s );
+        writeVarInt( bytes, buf );
+        ByteBufUtil.reserveAndWriteUtf8( buf, s, bytes );
+    }
+
+    /**
+     * Gets the number of bytes {@link #writeString(String, ByteBuf)} will use
+     * for the given string.
+     *
+     * @param s the string
+     * @return the encoded size including the length prefix
+     */
+    public static int getStringSize(String s)
+    {
+        int bytes = ByteBufUtil.utf8Bytes( s );
+        return getVarIntSize( bytes ) + bytes;
     }
 
     public static String readString(ByteBuf buf)
+    {
+        int len = readStringLength( buf );
+        int index = buf.readerIndex();
+        buf.skipBytes( len );
+
+        return buf.toString( index, len, Charsets.UTF_8 );
+    }
+
+    /**
+     * Reads a string which is likely to be repeated often, such as a channel
+     * or objective name, returning a shared instance where possible.
+     *
+     * @param buf the buffer to read from
+     * @return the read string
+     */
+    public static String readCachedString(ByteBuf buf)
+    {
+        int len = readStringLength( buf );
+        int index = buf.readerIndex();
+        buf.skipBytes( len );
+
+        return StringCache.get( buf, index, len );
+    }
+
+    private static int readStringLength(ByteBuf buf)
     {
         int len = readVarInt( buf );
         if ( len > Short.MAX_VALUE )
@@ -31,10 +70,7 @@ public abstract class DefinedPacket
             throw new OverflowPacketException( String.format( "Cannot receive string longer than Short.MAX_VALUE (got %s characters)", len ) );
         }
 
-        byte[] b = new byte[ len ];
-        buf.readBytes( b );
-
-        return new String( b, Charsets.UTF_8 );
+        return len;
     }
 
     public static void writeArray(byte[] b, ByteBuf buf)
@@ -94,6 +130,16 @@ public abstract class DefinedPacket
         }
     }
 
+    public static int getStringArraySize(List<String> s)
+    {
+        int size = getVarIntSize( s.size() );
+        for ( String str : s )
+        {
+            size += getStringSize( str );
+        }
+        return size;
+    }
+
     public static List<String> readStringArray(ByteBuf buf)
     {
         int len = readVarInt( buf );
@@ -157,6 +203,27 @@ public abstract class DefinedPacket
         }
     }
 
+    public static int getVarIntSize(int value)
+    {
+        if ( ( value & 0xFFFFFF80 ) == 0 )
+        {
+            return 1;
+        }
+        if ( ( value & 0xFFFFC000 ) == 0 )
+        {
+            return 2;
+        }
+        if ( ( value & 0xFFE00000 ) == 0 )
+        {
+            return 3;
+        }
+        if ( ( value & 0xF0000000 ) == 0 )
+        {
+            return 4;
+        }
+        return 5;
+    }
+
     public static int readVarShort(ByteBuf buf)
     {
         int low = buf.readUnsignedShort();
@@ -215,6 +282,22 @@ public abstract class DefinedPacket
         write( buf );
     }
 
+    /**
+     * Calculates exactly how many bytes
+     * {@link #write(ByteBuf, ProtocolConstants.Direction, int)} will produce,
+     * so large packets can be written to a buffer of the right size straight
+     * away. Only worth implementing for packets which commonly exceed a few
+     * hundred bytes and whose size is cheap to work out.
+     *
+     * @param direction the direction the packet is sent in
+     * @param protocolVersion the protocol version it is written for
+     * @return the size in bytes, or -1 if unknown
+     */
+    public int expectedSize(ProtocolConstants.Direction direction, int protocolVersion)
+    {
+        return -1;
+    }
+
     public abstract void handle(AbstractPacketHandler handler) throws Exception;
 
     @Override
@@ -4,10 +4,9 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
 import java.util.List;
-import lombok.AllArgsConstructor;
+import java.util.Set;
 import lombok.Setter;
 
-@AllArgsConstructor
 public class MinecraftDecoder extends MessageToMessageDecoder<ByteBuf>
 {
 
@@ -16,18 +15,35 @@ public class MinecraftDecoder extends MessageToMessageDecoder<ByteBuf>
     private final boolean server;
     @Setter
     private int protocolVersion;
+    /**
+     * Packets which are actually inspected once decoded, or null for all known
+     * packets. Anything else is passed on without a packet object.
+     */
+    @Setter
+    private Set<Class<? extends DefinedPacket>> handledPackets;
+
+    public MinecraftDecoder(Protocol protocol, boolean server, int protocolVersion)
+    {
+        this.protocol = protocol;
+        this.server = server;
+        this.protocolVersion = protocolVersion;
+    }
 
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception
     {
         Protocol.DirectionData prot = ( server ) ? protocol.TO_SERVER : protocol.TO_CLIENT;
-        ByteBuf slice = in.copy(); // Can't slice this one due to EntityMap :(
+        ByteBuf slice = in.retainedSlice(); // Fixed size, anything which needs to grow the packet must copy it first
 
         try
         {
             int packetId = DefinedPacket.readVarInt( in );
 
-            DefinedPacket packet = prot.createPacket( packetId, protocolVersion );
+            DefinedPacket packet = null;
+            if ( handledPackets == null || handledPackets.contains( prot.getPacketClass( packetId, protocolVersion ) ) )
+            {
+                packet = prot.createPacket( packetId, protocolVersion );
+            }
             if ( packet != null )
             {
                 packet.read( in, prot.getDirection(), protocolVersion );
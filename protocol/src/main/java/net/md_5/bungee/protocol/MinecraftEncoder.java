@@ -3,24 +3,86 @@ package net.md_5.bungee.protocol;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
-import lombok.AllArgsConstructor;
-import lombok.Setter;
+import lombok.Getter;
 
-@AllArgsConstructor
 public class MinecraftEncoder extends MessageToByteEncoder<DefinedPacket>
 {
 
-    @Setter
+    @Getter
     private Protocol protocol;
     private boolean server;
-    @Setter
+    @Getter
     private int protocolVersion;
+    /**
+     * Packet ids for the current protocol and version, indexed by packet
+     * kind.
+     */
+    private int[] packetIds;
+
+    public MinecraftEncoder(Protocol protocol, boolean server, int protocolVersion)
+    {
+        this.protocol = protocol;
+        this.server = server;
+        this.protocolVersion = protocolVersion;
+        updatePacketIds();
+    }
+
+    public void setProtocol(Protocol protocol)
+    {
+        this.protocol = protocol;
+        updatePacketIds();
+    }
+
+    public void setProtocolVersion(int protocolVersion)
+    {
+        this.protocolVersion = protocolVersion;
+        updatePacketIds();
+    }
+
+    private void updatePacketIds()
+    {
+        Protocol.DirectionData prot = ( server ) ? protocol.TO_CLIENT : protocol.TO_SERVER;
+        packetIds = prot.getPacketIds( protocolVersion );
+    }
+
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, DefinedPacket msg, boolean preferDirect) throws Exception
+    {
+        int expectedSize = msg.expectedSize( ( server ) ? ProtocolConstants.Direction.TO_CLIENT : ProtocolConstants.Direction.TO_SERVER, protocolVersion );
+        if ( expectedSize < 0 )
+        {
+            return super.allocateBuffer( ctx, msg, preferDirect );
+        }
+
+        int initialCapacity = DefinedPacket.getVarIntSize( Protocol.MAX_PACKET_ID ) + expectedSize;
+        return ( preferDirect ) ? ctx.alloc().ioBuffer( initialCapacity ) : ctx.alloc().heapBuffer( initialCapacity );
+    }
 
     @Override
     protected void encode(ChannelHandlerContext ctx, DefinedPacket msg, ByteBuf out) throws Exception
+    {
+        encode( msg, out );
+    }
+
+    /**
+     * Encodes a packet the same way this encoder would when it is written to
+     * the channel.
+     *
+     * @param msg the packet to encode
+     * @param out the buffer to write it to
+     */
+    public void encode(DefinedPacket msg, ByteBuf out)
     {
         Protocol.DirectionData prot = ( server ) ? protocol.TO_CLIENT : protocol.TO_SERVER;
-        DefinedPacket.writeVarInt( prot.getId( msg.getClass(), protocolVersion ), out );
+        int kind = Protocol.getPacketKind( msg.getClass() );
+        int id = ( packetIds != null && kind >= 0 && kind < packetIds.length ) ? packetIds[kind] : -1;
+        if ( id == -1 )
+        {
+            // Not mapped, let the slow path report why
+            id = prot.getId( msg.getClass(), protocolVersion );
+        }
+
+        DefinedPacket.writeVarInt( id, out );
         msg.write( out, prot.getDirection(), protocolVersion );
     }
 }
@@ -1,12 +1,14 @@
 package net.md_5.bungee.protocol;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Iterables;
-import gnu.trove.map.TIntObjectMap;
 import gnu.trove.map.TObjectIntMap;
-import gnu.trove.map.hash.TIntObjectHashMap;
 import gnu.trove.map.hash.TObjectIntHashMap;
-import java.lang.reflect.Constructor;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.function.Supplier;
 import lombok.Data;
 import lombok.Getter;
 import net.md_5.bungee.protocol.packet.BossBar;
@@ -357,13 +359,78 @@ public enum Protocol
         }
     }
 
+    /**
+     * Gets the id a packet is sent with in this protocol, so that handlers can
+     * recognise packets which were passed on without being decoded.
+     *
+     * @param direction the direction the packet is sent in
+     * @param packetClass the packet class
+     * @param version the protocol version
+     * @return the packet id, or -1 if the packet does not exist in the version
+     */
+    public int getPacketId(ProtocolConstants.Direction direction, Class<? extends DefinedPacket> packetClass, int version)
+    {
+        DirectionData data = ( direction == ProtocolConstants.Direction.TO_CLIENT ) ? TO_CLIENT : TO_SERVER;
+        int[] packetIds = data.getPacketIds( version );
+        int kind = getPacketKind( packetClass );
+
+        return ( packetIds != null && kind >= 0 && kind < packetIds.length ) ? packetIds[kind] : -1;
+    }
+
+    /**
+     * Returns the small number assigned to a packet class when it was first
+     * registered, used to index packet ids without hashing the class.
+     *
+     * @param packetClass the packet class
+     * @return the packet kind, or -1 if the class was never registered
+     */
+    static int getPacketKind(Class<?> packetClass)
+    {
+        return PacketKinds.CACHE.get( packetClass );
+    }
+
+    // Kept out of Protocol itself, as its constants register packets before its own static fields are initialized
+    private static final class PacketKinds
+    {
+
+        private static final TObjectIntMap<Class<?>> KINDS = new TObjectIntHashMap<>( MAX_PACKET_ID, 0.5F, -1 );
+        private static final ClassValue<Integer> CACHE = new ClassValue<Integer>()
+        {
+            @Override
+            protected Integer computeValue(Class<?> type)
+            {
+                synchronized ( KINDS )
+                {
+                    return KINDS.get( type );
+                }
+            }
+        };
+
+        private static int register(Class<? extends DefinedPacket> packetClass)
+        {
+            synchronized ( KINDS )
+            {
+                int kind = KINDS.get( packetClass );
+                if ( kind == -1 )
+                {
+                    kind = KINDS.size();
+                    KINDS.put( packetClass, kind );
+                }
+                return kind;
+            }
+        }
+    }
+
     @Data
-    private static class ProtocolData
+    static class ProtocolData
     {
 
         private final int protocolVersion;
         private final TObjectIntMap<Class<? extends DefinedPacket>> packetMap = new TObjectIntHashMap<>( MAX_PACKET_ID );
-        private final Constructor<? extends DefinedPacket>[] packetConstructors = new Constructor[ MAX_PACKET_ID ];
+        // Packet ids indexed by packet kind, -1 where there is no mapping
+        private int[] packetIds = new int[ 0 ];
+        private final Class<? extends DefinedPacket>[] packetClasses = new Class[ MAX_PACKET_ID ];
+        private final Supplier<? extends DefinedPacket>[] packetConstructors = new Supplier[ MAX_PACKET_ID ];
     }
 
     @Data
@@ -380,10 +447,30 @@ public enum Protocol
         return new ProtocolMapping( protocol, id );
     }
 
+    @SuppressWarnings("unchecked")
+    private static Supplier<? extends DefinedPacket> createConstructor(Class<? extends DefinedPacket> packetClass)
+    {
+        try
+        {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle constructor = lookup.findConstructor( packetClass, MethodType.methodType( void.class ) );
+
+            // Equivalent to a constructor reference, so creating a packet is a plain allocation rather than a reflective call
+            return (Supplier<? extends DefinedPacket>) LambdaMetafactory.metafactory( lookup, "get", MethodType.methodType( Supplier.class ),
+                    MethodType.methodType( Object.class ), constructor, MethodType.methodType( packetClass ) ).getTarget().invokeWithArguments();
+        } catch ( NoSuchMethodException | IllegalAccessException ex )
+        {
+            throw new BadPacketException( "No NoArgsConstructor for packet class " + packetClass );
+        } catch ( Throwable t )
+        {
+            throw new BadPacketException( "Could not create constructor for packet class " + packetClass, t );
+        }
+    }
+
     static final class DirectionData
     {
 
-        private final TIntObjectMap<ProtocolData> protocols = new TIntObjectHashMap<>();
+        private final ProtocolData[] protocols = new ProtocolData[ ProtocolConstants.SUPPORTED_VERSION_IDS.get( ProtocolConstants.SUPPORTED_VERSION_IDS.size() - 1 ) + 1 ];
         //
         private final Protocol protocolPhase;
         @Getter
@@ -396,81 +483,101 @@ public enum Protocol
 
             for ( int protocol : ProtocolConstants.SUPPORTED_VERSION_IDS )
             {
-                protocols.put( protocol, new ProtocolData( protocol ) );
+                protocols[protocol] = new ProtocolData( protocol );
             }
         }
 
         private ProtocolData getProtocolData(int version)
         {
-            ProtocolData protocol = protocols.get( version );
+            ProtocolData protocol = ( version >= 0 && version < protocols.length ) ? protocols[version] : null;
             if ( protocol == null && ( protocolPhase != Protocol.GAME ) )
             {
-                protocol = Iterables.getFirst( protocols.valueCollection(), null );
+                protocol = protocols[protocols.length - 1];
             }
             return protocol;
         }
 
-        public final DefinedPacket createPacket(int id, int version)
+        ProtocolData getPacketData(int id, int version)
         {
             ProtocolData protocolData = getProtocolData( version );
             if ( protocolData == null )
             {
                 throw new BadPacketException( "Unsupported protocol version " + version );
             }
-            if ( id > MAX_PACKET_ID )
+            if ( id < 0 || id >= MAX_PACKET_ID )
             {
                 throw new BadPacketException( "Packet with id " + id + " outside of range " );
             }
 
-            Constructor<? extends DefinedPacket> constructor = protocolData.packetConstructors[id];
-            try
-            {
-                return ( constructor == null ) ? null : constructor.newInstance();
-            } catch ( ReflectiveOperationException ex )
-            {
-                throw new BadPacketException( "Could not construct packet with id " + id, ex );
-            }
+            return protocolData;
+        }
+
+        final Class<? extends DefinedPacket> getPacketClass(int id, int version)
+        {
+            return getPacketData( id, version ).packetClasses[id];
+        }
+
+        public final DefinedPacket createPacket(int id, int version)
+        {
+            Supplier<? extends DefinedPacket> constructor = getPacketData( id, version ).packetConstructors[id];
+            return ( constructor == null ) ? null : constructor.get();
         }
 
         private void registerPacket(Class<? extends DefinedPacket> packetClass, ProtocolMapping... mappings)
         {
-            try
+            Supplier<? extends DefinedPacket> constructor = createConstructor( packetClass );
+            int kind = PacketKinds.register( packetClass );
+
+            int mappingIndex = 0;
+            ProtocolMapping mapping = mappings[mappingIndex];
+            for ( int protocol : ProtocolConstants.SUPPORTED_VERSION_IDS )
             {
-                Constructor<? extends DefinedPacket> constructor = packetClass.getDeclaredConstructor();
+                if ( protocol < mapping.protocolVersion )
+                {
+                    // This is a new packet, skip it till we reach the next protocol
+                    continue;
+                }
 
-                int mappingIndex = 0;
-                ProtocolMapping mapping = mappings[mappingIndex];
-                for ( int protocol : ProtocolConstants.SUPPORTED_VERSION_IDS )
+                if ( mapping.protocolVersion < protocol && mappingIndex + 1 < mappings.length )
                 {
-                    if ( protocol < mapping.protocolVersion )
+                    // Mapping is non current, but the next one may be ok
+                    ProtocolMapping nextMapping = mappings[mappingIndex + 1];
+                    if ( nextMapping.protocolVersion == protocol )
                     {
-                        // This is a new packet, skip it till we reach the next protocol
-                        continue;
-                    }
+                        Preconditions.checkState( nextMapping.packetID != mapping.packetID, "Duplicate packet mapping (%s, %s)", mapping.protocolVersion, nextMapping.protocolVersion );
 
-                    if ( mapping.protocolVersion < protocol && mappingIndex + 1 < mappings.length )
-                    {
-                        // Mapping is non current, but the next one may be ok
-                        ProtocolMapping nextMapping = mappings[mappingIndex + 1];
-                        if ( nextMapping.protocolVersion == protocol )
-                        {
-                            Preconditions.checkState( nextMapping.packetID != mapping.packetID, "Duplicate packet mapping (%s, %s)", mapping.protocolVersion, nextMapping.protocolVersion );
-
-                            mapping = nextMapping;
-                            mappingIndex++;
-                        }
+                        mapping = nextMapping;
+                        mappingIndex++;
                     }
+                }
 
-                    ProtocolData data = protocols.get( protocol );
-                    data.packetMap.put( packetClass, mapping.packetID );
-                    data.packetConstructors[mapping.packetID] = constructor;
+                ProtocolData data = protocols[protocol];
+                data.packetMap.put( packetClass, mapping.packetID );
+                data.packetClasses[mapping.packetID] = packetClass;
+                data.packetConstructors[mapping.packetID] = constructor;
+
+                if ( kind >= data.packetIds.length )
+                {
+                    int length = data.packetIds.length;
+                    data.packetIds = Arrays.copyOf( data.packetIds, kind + 1 );
+                    Arrays.fill( data.packetIds, length, kind + 1, -1 );
                 }
-            } catch ( NoSuchMethodException ex )
-            {
-                throw new BadPacketException( "No NoArgsConstructor for packet class " + packetClass );
+                data.packetIds[kind] = mapping.packetID;
             }
         }
 
+        /**
+         * Returns the packet ids of a version indexed by packet kind.
+         *
+         * @param version the protocol version
+         * @return the packet ids, or null if the version is not supported
+         */
+        final int[] getPacketIds(int version)
+        {
+            ProtocolData protocolData = getProtocolData( version );
+            return ( protocolData == null ) ? null : protocolData.packetIds;
+        }
+
         final int getId(Class<? extends DefinedPacket> packet, int version)
         {
 
@@ -0,0 +1,75 @@
+package net.md_5.bungee.protocol;
+
+import com.google.common.base.Charsets;
+import io.netty.buffer.ByteBuf;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Small lossy cache of decoded strings, keyed by their encoded bytes. Lookups
+ * compare the buffer contents directly, so a hit allocates nothing.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class StringCache
+{
+
+    private static final int SIZE = 1024;
+    private static final int MAX_LENGTH = 64;
+    // Entries are immutable, so racing writers at worst evict each other
+    private static final Entry[] ENTRIES = new Entry[ SIZE ];
+
+    static String get(ByteBuf buf, int index, int length)
+    {
+        if ( length > MAX_LENGTH )
+        {
+            return buf.toString( index, length, Charsets.UTF_8 );
+        }
+
+        int hash = 1;
+        for ( int i = 0; i < length; i++ )
+        {
+            hash = 31 * hash + buf.getByte( index + i );
+        }
+
+        int slot = ( hash ^ ( hash >>> 16 ) ) & ( SIZE - 1 );
+        Entry entry = ENTRIES[slot];
+        if ( entry != null && entry.hash == hash && entry.matches( buf, index, length ) )
+        {
+            return entry.value;
+        }
+
+        byte[] bytes = new byte[ length ];
+        buf.getBytes( index, bytes );
+        String value = new String( bytes, Charsets.UTF_8 );
+        ENTRIES[slot] = new Entry( hash, bytes, value );
+
+        return value;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry
+    {
+
+        private final int hash;
+        private final byte[] bytes;
+        private final String value;
+
+        private boolean matches(ByteBuf buf, int index, int length)
+        {
+            if ( bytes.length != length )
+            {
+                return false;
+            }
+            for ( int i = 0; i < length; i++ )
+            {
+                if ( bytes[i] != buf.getByte( index + i ) )
+                {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package net.md_5.bungee.protocol;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.CorruptedFrameException;
@@ -11,58 +10,70 @@ public class Varint21FrameDecoder extends ByteToMessageDecoder
 {
 
     private static boolean DIRECT_WARNING;
+    /**
+     * Length of the frame currently being read, or -1 if its length prefix
+     * has not been fully received yet.
+     */
+    private int frameLength = -1;
+    /**
+     * Partially received length prefix, kept across reads so that bytes are
+     * never parsed twice.
+     */
+    private int partialLength;
+    private int partialLengthBytes;
 
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception
     {
-        in.markReaderIndex();
-
-        final byte[] buf = new byte[ 3 ];
-        for ( int i = 0; i < buf.length; i++ )
+        while ( true )
         {
-            if ( !in.isReadable() )
+            while ( frameLength == -1 )
             {
-                in.resetReaderIndex();
-                return;
-            }
-
-            buf[i] = in.readByte();
-            if ( buf[i] >= 0 )
-            {
-                int length = DefinedPacket.readVarInt( Unpooled.wrappedBuffer( buf ) );
-                if ( length == 0 )
+                if ( !in.isReadable() )
                 {
-                    throw new CorruptedFrameException( "Empty Packet!" );
+                    return;
                 }
 
-                if ( in.readableBytes() < length )
+                byte read = in.readByte();
+                partialLength |= ( read & 0x7F ) << ( partialLengthBytes++ * 7 );
+                if ( read >= 0 )
                 {
-                    in.resetReaderIndex();
-                    return;
-                } else
-                {
-                    if ( in.hasMemoryAddress() )
-                    {
-                        out.add( in.slice( in.readerIndex(), length ).retain() );
-                        in.skipBytes( length );
-                    } else
+                    if ( partialLength == 0 )
                     {
-                        if ( !DIRECT_WARNING )
-                        {
-                            DIRECT_WARNING = true;
-                            System.out.println( "Netty is not using direct IO buffers." );
-                        }
-
-                        // See https://github.com/SpigotMC/BungeeCord/issues/1717
-                        ByteBuf dst = ctx.alloc().directBuffer( length );
-                        in.readBytes( dst );
-                        out.add( dst );
+                        throw new CorruptedFrameException( "Empty Packet!" );
                     }
-                    return;
+
+                    frameLength = partialLength;
+                    partialLength = 0;
+                    partialLengthBytes = 0;
+                } else if ( partialLengthBytes == 3 )
+                {
+                    throw new CorruptedFrameException( "length wider than 21-bit" );
                 }
             }
-        }
 
-        throw new CorruptedFrameException( "length wider than 21-bit" );
+            if ( in.readableBytes() < frameLength )
+            {
+                return;
+            }
+
+            if ( in.hasMemoryAddress() )
+            {
+                out.add( in.readRetainedSlice( frameLength ) );
+            } else
+            {
+                if ( !DIRECT_WARNING )
+                {
+                    DIRECT_WARNING = true;
+                    System.out.println( "Netty is not using direct IO buffers." );
+                }
+
+                // See https://github.com/SpigotMC/BungeeCord/issues/1717
+                ByteBuf dst = ctx.alloc().directBuffer( frameLength );
+                in.readBytes( dst );
+                out.add( dst );
+            }
+            frameLength = -1;
+        }
     }
 }
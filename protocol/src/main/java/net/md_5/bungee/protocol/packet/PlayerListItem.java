@@ -72,6 +72,50 @@ public class PlayerListItem extends DefinedPacket
         }
     }
 
+    @Override
+    public int expectedSize(ProtocolConstants.Direction direction, int protocolVersion)
+    {
+        int size = DefinedPacket.getVarIntSize( action.ordinal() ) + DefinedPacket.getVarIntSize( items.length );
+        for ( Item item : items )
+        {
+            size += 16; // uuid
+            switch ( action )
+            {
+                case ADD_PLAYER:
+                    size += DefinedPacket.getStringSize( item.username );
+                    size += DefinedPacket.getVarIntSize( item.properties.length );
+                    for ( String[] prop : item.properties )
+                    {
+                        size += DefinedPacket.getStringSize( prop[0] ) + DefinedPacket.getStringSize( prop[1] ) + 1;
+                        if ( prop.length >= 3 )
+                        {
+                            size += DefinedPacket.getStringSize( prop[2] );
+                        }
+                    }
+                    size += DefinedPacket.getVarIntSize( item.gamemode ) + DefinedPacket.getVarIntSize( item.ping ) + 1;
+                    if ( item.displayName != null )
+                    {
+                        size += DefinedPacket.getStringSize( item.displayName );
+                    }
+                    break;
+                case UPDATE_GAMEMODE:
+                    size += DefinedPacket.getVarIntSize( item.gamemode );
+                    break;
+                case UPDATE_LATENCY:
+                    size += DefinedPacket.getVarIntSize( item.ping );
+                    break;
+                case UPDATE_DISPLAY_NAME:
+                    size += 1;
+                    if ( item.displayName != null )
+                    {
+                        size += DefinedPacket.getStringSize( item.displayName );
+                    }
+                    break;
+            }
+        }
+        return size;
+    }
+
     @Override
     public void write(ByteBuf buf, ProtocolConstants.Direction direction, int protocolVersion)
     {
@@ -25,7 +25,7 @@ public class ScoreboardDisplay extends DefinedPacket
     public void read(ByteBuf buf)
     {
         position = buf.readByte();
-        name = readString( buf );
+        name = readCachedString( buf );
     }
 
     @Override
@@ -28,7 +28,7 @@ public class ScoreboardObjective extends DefinedPacket
     @Override
     public void read(ByteBuf buf, ProtocolConstants.Direction direction, int protocolVersion)
     {
-        name = readString( buf );
+        name = readCachedString( buf );
         action = buf.readByte();
         if ( action == 0 || action == 2 )
         {
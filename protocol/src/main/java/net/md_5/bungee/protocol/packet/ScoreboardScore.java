@@ -27,9 +27,9 @@ public class ScoreboardScore extends DefinedPacket
     @Override
     public void read(ByteBuf buf, ProtocolConstants.Direction direction, int protocolVersion)
     {
-        itemName = readString( buf );
+        itemName = readCachedString( buf );
         action = buf.readByte();
-        scoreName = readString( buf );
+        scoreName = readCachedString( buf );
         if ( action != 1 )
         {
             value = readVarInt( buf );
@@ -65,6 +65,27 @@ public class TabCompleteResponse extends DefinedPacket
         }
     }
 
+    @Override
+    public int expectedSize(ProtocolConstants.Direction direction, int protocolVersion)
+    {
+        if ( protocolVersion < ProtocolConstants.MINECRAFT_1_13 )
+        {
+            return getStringArraySize( commands );
+        }
+
+        int size = getVarIntSize( transactionId ) + getVarIntSize( suggestions.getRange().getStart() ) + getVarIntSize( suggestions.getRange().getLength() );
+        size += getVarIntSize( suggestions.getList().size() );
+        for ( Suggestion suggestion : suggestions.getList() )
+        {
+            size += getStringSize( suggestion.getText() ) + 1;
+            if ( suggestion.getTooltip() != null && suggestion.getTooltip().getString() != null )
+            {
+                size += getStringSize( suggestion.getTooltip().getString() );
+            }
+        }
+        return size;
+    }
+
     @Override
     public void write(ByteBuf buf, ProtocolConstants.Direction direction, int protocolVersion)
     {
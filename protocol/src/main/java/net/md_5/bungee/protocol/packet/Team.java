@@ -44,7 +44,7 @@ public class Team extends DefinedPacket
     @Override
     public void read(ByteBuf buf, ProtocolConstants.Direction direction, int protocolVersion)
     {
-        name = readString( buf );
+        name = readCachedString( buf );
         mode = buf.readByte();
         if ( mode == 0 || mode == 2 )
         {
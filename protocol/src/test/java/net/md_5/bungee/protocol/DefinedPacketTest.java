@@ -0,0 +1,133 @@
+package net.md_5.bungee.protocol;
+
+import com.google.common.base.Charsets;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.lang.management.ManagementFactory;
+import net.md_5.bungee.protocol.packet.Chat;
+import net.md_5.bungee.protocol.packet.PluginMessage;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class DefinedPacketTest
+{
+
+    private static final int BENCHMARK_COUNT = 1 << 20;
+    private static final String[] STRINGS = new String[]
+    {
+        "", "minecraft:brand", "{\"text\":\"Pl\u00e4yer \u2603\"}", "\ud83d\ude00 surrogate pair", "unpaired \ud83d surrogate"
+    };
+
+    @Test
+    public void testStrings()
+    {
+        ByteBuf buf = Unpooled.directBuffer();
+        for ( String s : STRINGS )
+        {
+            buf.clear();
+            DefinedPacket.writeString( s, buf );
+            Assert.assertEquals( DefinedPacket.getStringSize( s ), buf.readableBytes() );
+
+            // Must stay byte for byte compatible with the old encoding
+            byte[] b = s.getBytes( Charsets.UTF_8 );
+            Assert.assertEquals( b.length, DefinedPacket.readVarInt( buf ) );
+            Assert.assertArrayEquals( b, DefinedPacket.toArray( buf ) );
+
+            buf.readerIndex( 0 );
+            Assert.assertEquals( new String( b, Charsets.UTF_8 ), DefinedPacket.readString( buf ) );
+            Assert.assertFalse( buf.isReadable() );
+        }
+        buf.release();
+    }
+
+    @Test
+    public void testCachedString()
+    {
+        ByteBuf buf = Unpooled.directBuffer();
+        DefinedPacket.writeString( "bungeecord:main", buf );
+        DefinedPacket.writeString( "bungeecord:main", buf );
+        DefinedPacket.writeString( "bungeecord:mail", buf );
+
+        String first = DefinedPacket.readCachedString( buf );
+        Assert.assertEquals( "bungeecord:main", first );
+        Assert.assertSame( first, DefinedPacket.readCachedString( buf ) );
+        Assert.assertEquals( "bungeecord:mail", DefinedPacket.readCachedString( buf ) );
+        Assert.assertFalse( buf.isReadable() );
+
+        buf.release();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testTruncatedString()
+    {
+        ByteBuf buf = Unpooled.buffer();
+        DefinedPacket.writeVarInt( 10, buf );
+        buf.writeBytes( new byte[ 5 ] );
+
+        DefinedPacket.readString( buf );
+    }
+
+    @Test
+    @Ignore("Benchmark")
+    public void testBenchmark()
+    {
+        ByteBuf chat = Unpooled.directBuffer();
+        new Chat( "{\"text\":\"Hello world, this is a chat message\"}", (byte) 0 ).write( chat, ProtocolConstants.Direction.TO_CLIENT, ProtocolConstants.MINECRAFT_1_15 );
+        ByteBuf message = Unpooled.directBuffer();
+        new PluginMessage( "bungeecord:main", new byte[ 16 ], false ).write( message, ProtocolConstants.Direction.TO_CLIENT, ProtocolConstants.MINECRAFT_1_15 );
+
+        // Warm up both paths, so neither is measured while still interpreted
+        benchmark( chat, message, false );
+        benchmark( chat, message, true );
+
+        long start = System.currentTimeMillis();
+        long allocated = getAllocatedBytes();
+        benchmark( chat, message, false );
+        System.out.println( String.format( "byte[] Decode Iteration: %d, Elapsed: %d ms, Allocated: %d bytes", BENCHMARK_COUNT, System.currentTimeMillis() - start, getAllocatedBytes() - allocated ) );
+
+        start = System.currentTimeMillis();
+        allocated = getAllocatedBytes();
+        benchmark( chat, message, true );
+        System.out.println( String.format( "ByteBuf Decode Iteration: %d, Elapsed: %d ms, Allocated: %d bytes", BENCHMARK_COUNT, System.currentTimeMillis() - start, getAllocatedBytes() - allocated ) );
+
+        chat.release();
+        message.release();
+    }
+
+    private static void benchmark(ByteBuf chat, ByteBuf message, boolean direct)
+    {
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            chat.readerIndex( 0 );
+            message.readerIndex( 0 );
+            if ( direct )
+            {
+                new Chat().read( chat, ProtocolConstants.Direction.TO_CLIENT, ProtocolConstants.MINECRAFT_1_15 );
+                new PluginMessage().read( message, ProtocolConstants.Direction.TO_CLIENT, ProtocolConstants.MINECRAFT_1_15 );
+            } else
+            {
+                // The previous implementation, copying through a temporary array
+                Chat packet = new Chat();
+                packet.setMessage( readArrayString( chat ) );
+                packet.setPosition( chat.readByte() );
+                PluginMessage pluginMessage = new PluginMessage();
+                pluginMessage.setTag( readArrayString( message ) );
+                pluginMessage.setData( DefinedPacket.toArray( message ) );
+            }
+        }
+    }
+
+    private static String readArrayString(ByteBuf buf)
+    {
+        byte[] b = new byte[ DefinedPacket.readVarInt( buf ) ];
+        buf.readBytes( b );
+
+        return new String( b, Charsets.UTF_8 );
+    }
+
+    private static long getAllocatedBytes()
+    {
+        return ( (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean() ).getThreadAllocatedBytes( Thread.currentThread().getId() );
+    }
+}
@@ -0,0 +1,143 @@
+package net.md_5.bungee.protocol;
+
+import io.netty.buffer.AbstractByteBufAllocator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledHeapByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import net.md_5.bungee.protocol.packet.PlayerListItem;
+import net.md_5.bungee.protocol.packet.TabCompleteResponse;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MinecraftEncoderTest
+{
+
+    @Test
+    public void testExpectedSize()
+    {
+        for ( DefinedPacket packet : createPackets() )
+        {
+            ByteBuf buf = Unpooled.buffer();
+            packet.write( buf, ProtocolConstants.Direction.TO_CLIENT, ProtocolConstants.MINECRAFT_1_12_2 );
+
+            Assert.assertEquals( buf.readableBytes(), packet.expectedSize( ProtocolConstants.Direction.TO_CLIENT, ProtocolConstants.MINECRAFT_1_12_2 ) );
+            buf.release();
+        }
+    }
+
+    @Test
+    public void testReallocations()
+    {
+        MinecraftEncoder defaultEncoder = new MinecraftEncoder( Protocol.GAME, true, ProtocolConstants.MINECRAFT_1_12_2 )
+        {
+            @Override
+            protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, DefinedPacket msg, boolean preferDirect) throws Exception
+            {
+                return ( preferDirect ) ? ctx.alloc().ioBuffer() : ctx.alloc().heapBuffer();
+            }
+        };
+        MinecraftEncoder sizedEncoder = new MinecraftEncoder( Protocol.GAME, true, ProtocolConstants.MINECRAFT_1_12_2 );
+
+        // Large packets outgrow the default buffer, but are written into one of the right size straight away
+        Assert.assertTrue( countReallocations( defaultEncoder ) > 0 );
+        Assert.assertEquals( 0, countReallocations( sizedEncoder ) );
+    }
+
+    private static int countReallocations(MinecraftEncoder encoder)
+    {
+        CountingAllocator allocator = new CountingAllocator();
+        EmbeddedChannel channel = new EmbeddedChannel( encoder );
+        channel.config().setAllocator( allocator );
+        List<DefinedPacket> packets = createPackets();
+
+        for ( DefinedPacket packet : packets )
+        {
+            channel.writeOutbound( packet );
+            ( (ByteBuf) channel.readOutbound() ).release();
+        }
+
+        channel.finishAndReleaseAll();
+        return allocator.reallocations;
+    }
+
+    // A full tab list of players with skins, and a long list of completions
+    private static List<DefinedPacket> createPackets()
+    {
+        PlayerListItem.Item[] items = new PlayerListItem.Item[ 100 ];
+        for ( int i = 0; i < items.length; i++ )
+        {
+            PlayerListItem.Item item = new PlayerListItem.Item();
+            item.setUuid( UUID.randomUUID() );
+            item.setUsername( "Player" + i );
+            item.setProperties( new String[][]
+            {
+                {
+                    "textures", "eyJ0aW1lc3RhbXAiOjE1ODAwMDAwMDAwMDAsInByb2ZpbGVJZCI6ImFiY2RlZiJ9", "c2lnbmF0dXJl"
+                }
+            } );
+            item.setPing( i );
+            item.setDisplayName( "{\"text\":\"Pl\u00e4yer \u2603 " + i + "\"}" );
+            items[i] = item;
+        }
+        PlayerListItem tab = new PlayerListItem();
+        tab.setAction( PlayerListItem.Action.ADD_PLAYER );
+        tab.setItems( items );
+
+        List<String> commands = new ArrayList<>();
+        for ( int i = 0; i < 500; i++ )
+        {
+            commands.add( "/command" + i );
+        }
+
+        List<DefinedPacket> packets = new ArrayList<>();
+        packets.add( tab );
+        packets.add( new TabCompleteResponse( commands ) );
+        return packets;
+    }
+
+    private static final class CountingAllocator extends AbstractByteBufAllocator
+    {
+
+        private int reallocations;
+
+        @Override
+        protected ByteBuf newHeapBuffer(int initialCapacity, int maxCapacity)
+        {
+            return new CountingByteBuf( this, initialCapacity, maxCapacity );
+        }
+
+        @Override
+        protected ByteBuf newDirectBuffer(int initialCapacity, int maxCapacity)
+        {
+            return new CountingByteBuf( this, initialCapacity, maxCapacity );
+        }
+
+        @Override
+        public boolean isDirectBufferPooled()
+        {
+            return false;
+        }
+
+        private final class CountingByteBuf extends UnpooledHeapByteBuf
+        {
+
+            private CountingByteBuf(ByteBufAllocator alloc, int initialCapacity, int maxCapacity)
+            {
+                super( alloc, initialCapacity, maxCapacity );
+            }
+
+            @Override
+            public ByteBuf capacity(int newCapacity)
+            {
+                reallocations++;
+                return super.capacity( newCapacity );
+            }
+        }
+    }
+}
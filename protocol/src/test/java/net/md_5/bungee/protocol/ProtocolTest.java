@@ -0,0 +1,201 @@
+package net.md_5.bungee.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.lang.reflect.Constructor;
+import java.util.UUID;
+import java.util.function.Supplier;
+import net.md_5.bungee.protocol.Protocol.ProtocolData;
+import net.md_5.bungee.protocol.packet.Chat;
+import net.md_5.bungee.protocol.packet.PlayerListItem;
+import net.md_5.bungee.protocol.packet.ScoreboardScore;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class ProtocolTest
+{
+
+    private static final int BENCHMARK_COUNT = 1 << 14;
+
+    @Test
+    public void testCreatePacket()
+    {
+        for ( int version : ProtocolConstants.SUPPORTED_VERSION_IDS )
+        {
+            for ( Protocol protocol : Protocol.values() )
+            {
+                testCreatePacket( protocol.TO_CLIENT, version );
+                testCreatePacket( protocol.TO_SERVER, version );
+            }
+        }
+    }
+
+    @Test
+    public void testEncoderIds()
+    {
+        for ( int version : ProtocolConstants.SUPPORTED_VERSION_IDS )
+        {
+            for ( Protocol protocol : Protocol.values() )
+            {
+                testEncoderIds( protocol, true, version );
+                testEncoderIds( protocol, false, version );
+            }
+        }
+    }
+
+    private void testEncoderIds(Protocol protocol, boolean server, int version)
+    {
+        MinecraftEncoder encoder = new MinecraftEncoder( Protocol.HANDSHAKE, server, -1 );
+        encoder.setProtocol( protocol );
+        encoder.setProtocolVersion( version );
+
+        Protocol.DirectionData data = ( server ) ? protocol.TO_CLIENT : protocol.TO_SERVER;
+        ByteBuf buf = Unpooled.buffer();
+        for ( int id = 0; id < Protocol.MAX_PACKET_ID; id++ )
+        {
+            DefinedPacket packet = data.createPacket( id, version );
+            if ( packet != null )
+            {
+                buf.clear();
+                try
+                {
+                    encoder.encode( packet, buf );
+                } catch ( RuntimeException ex )
+                {
+                    // Empty packets cannot always be written, but the id comes first
+                }
+                Assert.assertEquals( id, DefinedPacket.readVarInt( buf ) );
+            }
+        }
+        buf.release();
+    }
+
+    private void testCreatePacket(Protocol.DirectionData data, int version)
+    {
+        for ( int id = 0; id < Protocol.MAX_PACKET_ID; id++ )
+        {
+            Class<? extends DefinedPacket> packetClass = data.getPacketClass( id, version );
+            DefinedPacket packet = data.createPacket( id, version );
+
+            if ( packetClass == null )
+            {
+                Assert.assertNull( packet );
+            } else
+            {
+                Assert.assertEquals( packetClass, packet.getClass() );
+                Assert.assertEquals( id, data.getId( packetClass, version ) );
+            }
+        }
+    }
+
+    @Test
+    @Ignore("Benchmark")
+    public void testBenchmark() throws Exception
+    {
+        Supplier<?>[][] factories = new Supplier<?>[ ProtocolConstants.SUPPORTED_VERSION_IDS.size() ][ Protocol.MAX_PACKET_ID ];
+        Constructor<?>[][] constructors = new Constructor<?>[ ProtocolConstants.SUPPORTED_VERSION_IDS.size() ][ Protocol.MAX_PACKET_ID ];
+        for ( int i = 0; i < factories.length; i++ )
+        {
+            ProtocolData data = Protocol.GAME.TO_CLIENT.getPacketData( 0, ProtocolConstants.SUPPORTED_VERSION_IDS.get( i ) );
+            for ( int id = 0; id < Protocol.MAX_PACKET_ID; id++ )
+            {
+                factories[i][id] = data.getPacketConstructors()[id];
+                constructors[i][id] = ( data.getPacketClasses()[id] == null ) ? null : data.getPacketClasses()[id].getDeclaredConstructor();
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            for ( Supplier<?>[] versionFactories : factories )
+            {
+                for ( Supplier<?> factory : versionFactories )
+                {
+                    if ( factory != null )
+                    {
+                        factory.get();
+                    }
+                }
+            }
+        }
+        System.out.println( String.format( "Factory Iteration: %d, Elapsed: %d ms", BENCHMARK_COUNT, System.currentTimeMillis() - start ) );
+
+        start = System.currentTimeMillis();
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            for ( Constructor<?>[] versionConstructors : constructors )
+            {
+                for ( Constructor<?> constructor : versionConstructors )
+                {
+                    if ( constructor != null )
+                    {
+                        constructor.newInstance();
+                    }
+                }
+            }
+        }
+        System.out.println( String.format( "Reflection Iteration: %d, Elapsed: %d ms", BENCHMARK_COUNT, System.currentTimeMillis() - start ) );
+    }
+
+    @Test
+    @Ignore("Benchmark")
+    public void testEncodeBenchmark()
+    {
+        int version = ProtocolConstants.MINECRAFT_1_15;
+        PlayerListItem.Item item = new PlayerListItem.Item();
+        item.setUuid( UUID.randomUUID() );
+        item.setPing( 50 );
+        PlayerListItem tab = new PlayerListItem();
+        tab.setAction( PlayerListItem.Action.UPDATE_LATENCY );
+        tab.setItems( new PlayerListItem.Item[]
+        {
+            item
+        } );
+        DefinedPacket[] packets = new DefinedPacket[]
+        {
+            new Chat( "{\"text\":\"Hello\"}", (byte) 0 ), tab, new ScoreboardScore( "md_5", (byte) 0, "kills", 42 )
+        };
+
+        MinecraftEncoder encoder = new MinecraftEncoder( Protocol.GAME, true, version );
+        ByteBuf buf = Unpooled.directBuffer();
+
+        // Warm up both paths, so neither is measured while still interpreted
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            for ( DefinedPacket packet : packets )
+            {
+                buf.clear();
+                encoder.encode( packet, buf );
+                buf.clear();
+                DefinedPacket.writeVarInt( Protocol.GAME.TO_CLIENT.getId( packet.getClass(), version ), buf );
+                packet.write( buf, ProtocolConstants.Direction.TO_CLIENT, version );
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        for ( int i = 0; i < BENCHMARK_COUNT * 16; i++ )
+        {
+            for ( DefinedPacket packet : packets )
+            {
+                buf.clear();
+                encoder.encode( packet, buf );
+            }
+        }
+        System.out.println( String.format( "Encoder Iteration: %d, Elapsed: %d ms", BENCHMARK_COUNT * 16, System.currentTimeMillis() - start ) );
+
+        start = System.currentTimeMillis();
+        for ( int i = 0; i < BENCHMARK_COUNT * 16; i++ )
+        {
+            for ( DefinedPacket packet : packets )
+            {
+                buf.clear();
+                DefinedPacket.writeVarInt( Protocol.GAME.TO_CLIENT.getId( packet.getClass(), version ), buf );
+                packet.write( buf, ProtocolConstants.Direction.TO_CLIENT, version );
+            }
+        }
+        System.out.println( String.format( "Map Lookup Iteration: %d, Elapsed: %d ms", BENCHMARK_COUNT * 16, System.currentTimeMillis() - start ) );
+
+        buf.release();
+    }
+}
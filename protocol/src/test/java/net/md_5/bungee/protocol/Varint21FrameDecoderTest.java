@@ -0,0 +1,137 @@
+package net.md_5.bungee.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.CorruptedFrameException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class Varint21FrameDecoderTest
+{
+
+    private static final int BENCHMARK_COUNT = 1 << 10;
+    private static final int[] FRAME_SIZES = new int[]
+    {
+        1, 10, 127, 128, 300, 16383, 16384, 100000
+    };
+
+    @Test
+    public void testFragmented() throws Exception
+    {
+        ByteBuf stream = createStream();
+
+        for ( int chunk : new int[]
+        {
+            1, 2, 3, 7, 1024, stream.readableBytes()
+        } )
+        {
+            List<Object> frames = decode( new Varint21FrameDecoder(), stream.duplicate(), chunk );
+
+            Assert.assertEquals( FRAME_SIZES.length, frames.size() );
+            for ( int i = 0; i < FRAME_SIZES.length; i++ )
+            {
+                ByteBuf frame = (ByteBuf) frames.get( i );
+                Assert.assertEquals( FRAME_SIZES[i], frame.readableBytes() );
+                Assert.assertEquals( (byte) i, frame.getByte( 0 ) );
+                Assert.assertEquals( (byte) i, frame.getByte( frame.readableBytes() - 1 ) );
+                frame.release();
+            }
+        }
+
+        stream.release();
+    }
+
+    @Test(expected = CorruptedFrameException.class)
+    public void testEmpty() throws Exception
+    {
+        decode( new Varint21FrameDecoder(), Unpooled.wrappedBuffer( new byte[]
+        {
+            0
+        } ), 1 );
+    }
+
+    @Test(expected = CorruptedFrameException.class)
+    public void testTooWide() throws Exception
+    {
+        decode( new Varint21FrameDecoder(), Unpooled.wrappedBuffer( new byte[]
+        {
+            (byte) 0x80, (byte) 0x80, (byte) 0x80, 1
+        } ), 1 );
+    }
+
+    @Test
+    @Ignore("Benchmark")
+    public void testBenchmark() throws Exception
+    {
+        ByteBuf stream = createStream();
+        Varint21FrameDecoder decoder = new Varint21FrameDecoder();
+        int frames = 0;
+
+        long allocated = getAllocatedBytes();
+        long start = System.nanoTime();
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            // Typical MTU sized reads, so most length prefixes and frames are split
+            for ( Object frame : decode( decoder, stream.duplicate(), 1460 ) )
+            {
+                ( (ByteBuf) frame ).release();
+                frames++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        allocated = getAllocatedBytes() - allocated;
+
+        System.out.println( String.format( "Fragmented Frames: %d, %d ns/frame, %d bytes/frame", frames, elapsed / frames, allocated / frames ) );
+
+        stream.release();
+    }
+
+    private static ByteBuf createStream()
+    {
+        ByteBuf stream = Unpooled.directBuffer();
+        for ( int i = 0; i < FRAME_SIZES.length; i++ )
+        {
+            DefinedPacket.writeVarInt( FRAME_SIZES[i], stream );
+            for ( int j = 0; j < FRAME_SIZES[i]; j++ )
+            {
+                stream.writeByte( i );
+            }
+        }
+
+        return stream;
+    }
+
+    // Feeds the stream in chunks, calling decode the same way ByteToMessageDecoder does with its cumulation
+    private static List<Object> decode(Varint21FrameDecoder decoder, ByteBuf stream, int chunk) throws Exception
+    {
+        List<Object> out = new ArrayList<>();
+        ByteBuf cumulation = Unpooled.directBuffer( stream.readableBytes() );
+
+        while ( stream.isReadable() )
+        {
+            cumulation.writeBytes( stream, Math.min( chunk, stream.readableBytes() ) );
+            while ( cumulation.isReadable() )
+            {
+                int outSize = out.size();
+                int readable = cumulation.readableBytes();
+                decoder.decode( null, cumulation, out );
+                if ( outSize == out.size() && readable == cumulation.readableBytes() )
+                {
+                    break;
+                }
+            }
+        }
+
+        cumulation.release();
+        return out;
+    }
+
+    private static long getAllocatedBytes()
+    {
+        return ( (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean() ).getThreadAllocatedBytes( Thread.currentThread().getId() );
+    }
+}
@@ -27,7 +27,6 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
@@ -38,8 +37,6 @@ import java.util.Timer;
 import java.util.TimerTask;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -75,6 +72,7 @@ import net.md_5.bungee.command.CommandBungee;
 import net.md_5.bungee.command.CommandEnd;
 import net.md_5.bungee.command.CommandIP;
 import net.md_5.bungee.command.CommandPerms;
+import net.md_5.bungee.command.CommandProfile;
 import net.md_5.bungee.command.CommandReload;
 import net.md_5.bungee.command.ConsoleCommandCompleter;
 import net.md_5.bungee.command.ConsoleCommandSender;
@@ -85,6 +83,7 @@ import net.md_5.bungee.forge.ForgeConstants;
 import net.md_5.bungee.log.BungeeLogger;
 import net.md_5.bungee.log.LoggingOutputStream;
 import net.md_5.bungee.module.ModuleManager;
+import net.md_5.bungee.netty.PacketBroadcast;
 import net.md_5.bungee.netty.PipelineUtils;
 import net.md_5.bungee.protocol.DefinedPacket;
 import net.md_5.bungee.protocol.ProtocolConstants;
@@ -92,7 +91,7 @@ import net.md_5.bungee.protocol.packet.Chat;
 import net.md_5.bungee.protocol.packet.PluginMessage;
 import net.md_5.bungee.query.RemoteQuery;
 import net.md_5.bungee.scheduler.BungeeScheduler;
-import net.md_5.bungee.util.CaseInsensitiveMap;
+import net.md_5.bungee.util.PlayerRegistry;
 import org.fusesource.jansi.AnsiConsole;
 
 /**
@@ -128,11 +127,8 @@ public class BungeeCord extends ProxyServer
     /**
      * Fully qualified connections.
      */
-    private final Map<String, UserConnection> connections = new CaseInsensitiveMap<>();
-    // Used to help with packet rewriting
-    private final Map<UUID, UserConnection> connectionsByOfflineUUID = new HashMap<>();
-    private final Map<UUID, UserConnection> connectionsByUUID = new HashMap<>();
-    private final ReadWriteLock connectionLock = new ReentrantReadWriteLock();
+    private final PlayerRegistry<UserConnection> connections = new PlayerRegistry<>();
+    private final Collection<ProxiedPlayer> players = Collections.<ProxiedPlayer>unmodifiableCollection( connections.getPlayers() );
     /**
      * Plugin manager.
      */
@@ -218,6 +214,7 @@ public class BungeeCord extends ProxyServer
         getPluginManager().registerCommand( null, new CommandIP() );
         getPluginManager().registerCommand( null, new CommandBungee() );
         getPluginManager().registerCommand( null, new CommandPerms() );
+        getPluginManager().registerCommand( null, new CommandProfile() );
 
         if ( !Boolean.getBoolean( "net.md_5.bungee.native.disable" ) )
         {
@@ -228,7 +225,10 @@ public class BungeeCord extends ProxyServer
             {
                 logger.info( "Using standard Java JCE cipher." );
             }
-            if ( CompressFactory.zlib.load() )
+            if ( !Boolean.getBoolean( "net.md_5.bungee.native.libdeflate.disable" ) && CompressFactory.libdeflate.load() )
+            {
+                logger.info( "Using libdeflate based native compressor." );
+            } else if ( CompressFactory.zlib.load() )
             {
                 logger.info( "Using zlib based native compressor." );
             } else
@@ -264,6 +264,7 @@ public class BungeeCord extends ProxyServer
 
         pluginManager.loadPlugins();
         config.load();
+        pluginManager.setAsyncEventThreads( config.getAsyncEventThreads() );
 
         if ( config.isForgeSupport() )
         {
@@ -400,17 +401,10 @@ public class BungeeCord extends ProxyServer
                 stopListeners();
                 getLogger().info( "Closing pending connections" );
 
-                connectionLock.readLock().lock();
-                try
-                {
-                    getLogger().log( Level.INFO, "Disconnecting {0} connections", connections.size() );
-                    for ( UserConnection user : connections.values() )
-                    {
-                        user.disconnect( reason );
-                    }
-                } finally
+                getLogger().log( Level.INFO, "Disconnecting {0} connections", connections.size() );
+                for ( UserConnection user : connections.getPlayers() )
                 {
-                    connectionLock.readLock().unlock();
+                    user.disconnect( reason );
                 }
 
                 try
@@ -475,16 +469,16 @@ public class BungeeCord extends ProxyServer
      */
     public void broadcast(DefinedPacket packet)
     {
-        connectionLock.readLock().lock();
+        PacketBroadcast broadcast = new PacketBroadcast( packet );
         try
         {
-            for ( UserConnection con : connections.values() )
+            for ( UserConnection con : connections.getPlayers() )
             {
-                con.unsafe().sendPacket( packet );
+                broadcast.send( con.getCh() );
             }
         } finally
         {
-            connectionLock.readLock().unlock();
+            broadcast.release();
         }
     }
 
@@ -529,17 +523,9 @@ public class BungeeCord extends ProxyServer
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public Collection<ProxiedPlayer> getPlayers()
     {
-        connectionLock.readLock().lock();
-        try
-        {
-            return Collections.unmodifiableCollection( new HashSet( connections.values() ) );
-        } finally
-        {
-            connectionLock.readLock().unlock();
-        }
+        return players;
     }
 
     @Override
@@ -551,39 +537,18 @@ public class BungeeCord extends ProxyServer
     @Override
     public ProxiedPlayer getPlayer(String name)
     {
-        connectionLock.readLock().lock();
-        try
-        {
-            return connections.get( name );
-        } finally
-        {
-            connectionLock.readLock().unlock();
-        }
+        return connections.get( name );
     }
 
     public UserConnection getPlayerByOfflineUUID(UUID name)
     {
-        connectionLock.readLock().lock();
-        try
-        {
-            return connectionsByOfflineUUID.get( name );
-        } finally
-        {
-            connectionLock.readLock().unlock();
-        }
+        return connections.getByOfflineUUID( name );
     }
 
     @Override
     public ProxiedPlayer getPlayer(UUID uuid)
     {
-        connectionLock.readLock().lock();
-        try
-        {
-            return connectionsByUUID.get( uuid );
-        } finally
-        {
-            connectionLock.readLock().unlock();
-        }
+        return connections.get( uuid );
     }
 
     @Override
@@ -675,34 +640,13 @@ public class BungeeCord extends ProxyServer
 
     public void addConnection(UserConnection con)
     {
-        connectionLock.writeLock().lock();
-        try
-        {
-            connections.put( con.getName(), con );
-            connectionsByUUID.put( con.getUniqueId(), con );
-            connectionsByOfflineUUID.put( con.getPendingConnection().getOfflineId(), con );
-        } finally
-        {
-            connectionLock.writeLock().unlock();
-        }
+        connections.add( con.getName(), con.getUniqueId(), con.getPendingConnection().getOfflineId(), con );
     }
 
     public void removeConnection(UserConnection con)
     {
-        connectionLock.writeLock().lock();
-        try
-        {
-            // TODO See #1218
-            if ( connections.get( con.getName() ) == con )
-            {
-                connections.remove( con.getName() );
-                connectionsByUUID.remove( con.getUniqueId() );
-                connectionsByOfflineUUID.remove( con.getPendingConnection().getOfflineId() );
-            }
-        } finally
-        {
-            connectionLock.writeLock().unlock();
-        }
+        // TODO See #1218
+        connections.remove( con.getName(), con.getUniqueId(), con.getPendingConnection().getOfflineId(), con );
     }
 
     @Override
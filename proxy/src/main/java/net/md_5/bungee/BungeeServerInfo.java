@@ -1,21 +1,23 @@
 package net.md_5.bungee;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelOption;
 import java.net.InetSocketAddress;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.Synchronized;
 import lombok.ToString;
 import net.md_5.bungee.api.Callback;
 import net.md_5.bungee.api.CommandSender;
@@ -24,6 +26,8 @@ import net.md_5.bungee.api.ServerPing;
 import net.md_5.bungee.api.config.ServerInfo;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
 import net.md_5.bungee.api.connection.Server;
+import net.md_5.bungee.api.event.ServerDisconnectEvent;
+import net.md_5.bungee.api.event.ServerSwitchEvent;
 import net.md_5.bungee.connection.PingHandler;
 import net.md_5.bungee.netty.HandlerBoss;
 import net.md_5.bungee.netty.PipelineUtils;
@@ -42,7 +46,11 @@ public class BungeeServerInfo implements ServerInfo
     private final String name;
     @Getter
     private final InetSocketAddress address;
-    private final Collection<ProxiedPlayer> players = new ArrayList<>();
+    private final Set<ProxiedPlayer> players = Collections.newSetFromMap( new ConcurrentHashMap<ProxiedPlayer, Boolean>() );
+    private final AtomicInteger playerCount = new AtomicInteger();
+    // Bumped after every change to players, so a stale snapshot can be recognised
+    private final AtomicInteger playersVersion = new AtomicInteger();
+    private volatile Snapshot snapshot;
     @Getter
     private final String motd;
     @Getter
@@ -50,23 +58,62 @@ public class BungeeServerInfo implements ServerInfo
     @Getter
     private final Queue<DefinedPacket> packetQueue = new LinkedList<>();
 
-    @Synchronized("players")
+    /**
+     * Adds a player to this server. Plugins wanting to know when a player
+     * joins a server should listen for {@link ServerSwitchEvent}, which is
+     * called once the player has been added.
+     *
+     * @param player the player who joined
+     */
     public void addPlayer(ProxiedPlayer player)
     {
-        players.add( player );
+        if ( players.add( player ) )
+        {
+            playerCount.incrementAndGet();
+            playersVersion.incrementAndGet();
+        }
     }
 
-    @Synchronized("players")
+    /**
+     * Removes a player from this server. Plugins wanting to know when a player
+     * leaves a server should listen for {@link ServerDisconnectEvent}, which
+     * is called once the player has been removed.
+     *
+     * @param player the player who left
+     */
     public void removePlayer(ProxiedPlayer player)
     {
-        players.remove( player );
+        if ( players.remove( player ) )
+        {
+            playerCount.decrementAndGet();
+            playersVersion.incrementAndGet();
+        }
     }
 
-    @Synchronized("players")
+    // A snapshot which does not change, shared between callers until the next player joins or leaves
     @Override
     public Collection<ProxiedPlayer> getPlayers()
     {
-        return Collections.unmodifiableCollection( new HashSet<>( players ) );
+        int version = playersVersion.get();
+        Snapshot current = snapshot;
+        if ( current == null || current.version != version )
+        {
+            // Anything changed while copying only bumps the version again, so is picked up next time
+            current = snapshot = new Snapshot( version, ImmutableSet.copyOf( players ) );
+        }
+
+        return current.players;
+    }
+
+    /**
+     * Get the number of players on this server. This is cheaper than the size
+     * of {@link #getPlayers()}, as it never builds a snapshot.
+     *
+     * @return the number of players on this server
+     */
+    public int getPlayerCount()
+    {
+        return playerCount.get();
     }
 
     @Override
@@ -109,7 +156,8 @@ public class BungeeServerInfo implements ServerInfo
 
         synchronized ( packetQueue )
         {
-            Server server = ( players.isEmpty() ) ? null : players.iterator().next().getServer();
+            Iterator<ProxiedPlayer> it = players.iterator();
+            Server server = ( it.hasNext() ) ? it.next().getServer() : null;
             if ( server != null )
             {
                 server.sendData( channel, data );
@@ -155,4 +203,12 @@ public class BungeeServerInfo implements ServerInfo
                 .connect()
                 .addListener( listener );
     }
+
+    @RequiredArgsConstructor
+    private static class Snapshot
+    {
+
+        private final int version;
+        private final Collection<ProxiedPlayer> players;
+    }
 }
@@ -39,6 +39,8 @@ import net.md_5.bungee.protocol.packet.EntityStatus;
 import net.md_5.bungee.protocol.packet.Handshake;
 import net.md_5.bungee.protocol.packet.Kick;
 import net.md_5.bungee.protocol.packet.Login;
+import net.md_5.bungee.protocol.packet.LoginPayloadRequest;
+import net.md_5.bungee.protocol.packet.LoginPayloadResponse;
 import net.md_5.bungee.protocol.packet.LoginRequest;
 import net.md_5.bungee.protocol.packet.LoginSuccess;
 import net.md_5.bungee.protocol.packet.PluginMessage;
@@ -54,6 +56,11 @@ import net.md_5.bungee.util.QuietException;
 public class ServerConnector extends PacketHandler
 {
 
+    /**
+     * Login plugin channel through which servers may ask for the entity id of
+     * the client, so they can reuse it and spare us rewriting every packet.
+     */
+    public static final String ENTITY_ID_CHANNEL = "bungeecord:entity_id";
     private final ProxyServer bungee;
     private ChannelWrapper ch;
     private final UserConnection user;
@@ -163,6 +170,25 @@ public class ServerConnector extends PacketHandler
         throw CancelSendSignal.INSTANCE;
     }
 
+    @Override
+    public void handle(LoginPayloadRequest request) throws Exception
+    {
+        if ( request.getChannel().equals( ENTITY_ID_CHANNEL ) )
+        {
+            byte[] data = null;
+            // The client entity id is only known once the first server has been joined
+            if ( BungeeCord.getInstance().config.isEntityIdNegotiation() && user.getServer() != null )
+            {
+                ByteBuf buf = ByteBufAllocator.DEFAULT.heapBuffer();
+                buf.writeInt( user.getClientEntityId() );
+                data = DefinedPacket.toArray( buf );
+                buf.release();
+            }
+
+            ch.write( new LoginPayloadResponse( request.getId(), data ) );
+        }
+    }
+
     @Override
     public void handle(SetCompression setCompression) throws Exception
     {
@@ -286,7 +312,10 @@ public class ServerConnector extends PacketHandler
         user.setDimensionChange( false );
 
         user.setServer( server );
-        ch.getHandle().pipeline().get( HandlerBoss.class ).setHandler( new DownstreamBridge( bungee, user, server ) );
+        DownstreamBridge bridge = new DownstreamBridge( bungee, user, server );
+        ch.getHandle().pipeline().get( HandlerBoss.class ).setHandler( bridge );
+        // Everything else is forwarded as is, so don't bother decoding it
+        ch.setHandledPackets( bridge.getHandledPackets() );
 
         bungee.getPluginManager().callEvent( new ServerSwitchEvent( user ) );
 
@@ -70,6 +70,7 @@ public final class UserConnection implements ProxiedPlayer
     /*========================================================================*/
     @NonNull
     private final ProxyServer bungee;
+    @Getter
     @NonNull
     private final ChannelWrapper ch;
     @Getter
@@ -117,7 +118,6 @@ public final class UserConnection implements ProxiedPlayer
     @Setter
     private int clientEntityId;
     @Getter
-    @Setter
     private int serverEntityId;
     @Getter
     private ClientSettings settings;
@@ -169,6 +169,20 @@ public final class UserConnection implements ProxiedPlayer
         forgeClientHandler.setFmlTokenInHandshake( this.getPendingConnection().getExtraDataInHandshake().contains( ForgeConstants.FML_HANDSHAKE_TOKEN ) );
     }
 
+    public void setServerEntityId(int serverEntityId)
+    {
+        this.serverEntityId = serverEntityId;
+
+        // With forwarding the server knows our uuids, so matching ids leave nothing to rewrite
+        if ( serverEntityId == clientEntityId && bungee.getConfig().isIpForward() )
+        {
+            entityRewrite = EntityMap.NOOP;
+        } else
+        {
+            entityRewrite = EntityMap.getEntityMap( getPendingConnection().getVersion() );
+        }
+    }
+
     public void sendPacket(PacketWrapper packet)
     {
         ch.write( packet );
@@ -275,9 +289,49 @@ public final class UserConnection implements ProxiedPlayer
     {
         Preconditions.checkNotNull( request, "request" );
 
-        final Callback<ServerConnectRequest.Result> callback = request.getCallback();
         ServerConnectEvent event = new ServerConnectEvent( this, request.getTarget(), request.getReason() );
-        if ( bungee.getPluginManager().callEvent( event ).isCancelled() )
+        if ( !bungee.getPluginManager().hasAsyncListeners( ServerConnectEvent.class ) )
+        {
+            connect0( request, bungee.getPluginManager().callEvent( event ) );
+            return;
+        }
+
+        // May be called from any thread, so carry on from this player's event loop once every handler is done
+        bungee.getPluginManager().callEvent( event, new Callback<ServerConnectEvent>()
+        {
+            @Override
+            public void done(final ServerConnectEvent result, Throwable error)
+            {
+                ch.getHandle().eventLoop().execute( new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        if ( ch.isClosed() )
+                        {
+                            if ( request.getCallback() != null )
+                            {
+                                request.getCallback().done( ServerConnectRequest.Result.FAIL, null );
+                            }
+                            return;
+                        }
+                        try
+                        {
+                            connect0( request, result );
+                        } catch ( RuntimeException ex )
+                        {
+                            ch.getHandle().pipeline().fireExceptionCaught( ex );
+                        }
+                    }
+                } );
+            }
+        } );
+    }
+
+    private void connect0(final ServerConnectRequest request, ServerConnectEvent event)
+    {
+        final Callback<ServerConnectRequest.Result> callback = request.getCallback();
+        if ( event.isCancelled() )
         {
             if ( callback != null )
             {
@@ -536,6 +590,10 @@ public final class UserConnection implements ProxiedPlayer
     @Override
     public boolean hasPermission(String permission)
     {
+        if ( !bungee.getPluginManager().hasListeners( PermissionCheckEvent.class ) )
+        {
+            return permissions.contains( permission );
+        }
         return bungee.getPluginManager().callEvent( new PermissionCheckEvent( this, permission, permissions.contains( permission ) ) ).hasPermission();
     }
 
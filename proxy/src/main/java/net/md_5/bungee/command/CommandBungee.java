@@ -4,6 +4,7 @@ import net.md_5.bungee.api.ChatColor;
 import net.md_5.bungee.api.CommandSender;
 import net.md_5.bungee.api.ProxyServer;
 import net.md_5.bungee.api.plugin.Command;
+import net.md_5.bungee.netty.ChannelWrapper;
 
 public class CommandBungee extends Command
 {
@@ -17,5 +18,6 @@ public class CommandBungee extends Command
     public void execute(CommandSender sender, String[] args)
     {
         sender.sendMessage( ChatColor.BLUE + "This server is running BungeeCord version " + ProxyServer.getInstance().getVersion() + " by md_5" );
+        sender.sendMessage( ChatColor.BLUE + String.format( "Average packets per flush: %.2f", ChannelWrapper.getAveragePacketsPerFlush() ) );
     }
 }
@@ -0,0 +1,106 @@
+package net.md_5.bungee.command;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import net.md_5.bungee.api.ChatColor;
+import net.md_5.bungee.api.CommandSender;
+import net.md_5.bungee.api.ProxyServer;
+import net.md_5.bungee.api.plugin.Command;
+import net.md_5.bungee.api.plugin.Plugin;
+import net.md_5.bungee.api.plugin.PluginManager;
+import net.md_5.bungee.event.EventHandlerMethod;
+import net.md_5.bungee.event.EventHandlerTimings;
+
+public class CommandProfile extends Command
+{
+
+    private static final int SHOWN_HANDLERS = 10;
+
+    public CommandProfile()
+    {
+        super( "bungeeprofile", "bungeecord.command.profile" );
+    }
+
+    @Override
+    public void execute(CommandSender sender, String[] args)
+    {
+        PluginManager pluginManager = ProxyServer.getInstance().getPluginManager();
+        String action = ( args.length == 0 ) ? "" : args[0].toLowerCase( Locale.ROOT );
+
+        switch ( action )
+        {
+            case "on":
+                pluginManager.setEventProfiling( true );
+                sender.sendMessage( ChatColor.BLUE + "Event profiling enabled." );
+                break;
+            case "off":
+                pluginManager.setEventProfiling( false );
+                sender.sendMessage( ChatColor.BLUE + "Event profiling disabled." );
+                break;
+            case "reset":
+                for ( EventHandlerMethod handler : pluginManager.getEventHandlers().values() )
+                {
+                    handler.getTimings().reset();
+                }
+                sender.sendMessage( ChatColor.BLUE + "Event handler timings reset." );
+                break;
+            case "":
+                showTimings( sender, pluginManager );
+                break;
+            default:
+                sender.sendMessage( ChatColor.RED + "Usage: /bungeeprofile [on|off|reset]" );
+                break;
+        }
+    }
+
+    private static void showTimings(CommandSender sender, PluginManager pluginManager)
+    {
+        List<Map.Entry<Plugin, EventHandlerMethod>> handlers = new ArrayList<>();
+        for ( Map.Entry<Plugin, EventHandlerMethod> entry : pluginManager.getEventHandlers().entries() )
+        {
+            if ( entry.getValue().getTimings().getCount() > 0 )
+            {
+                handlers.add( entry );
+            }
+        }
+
+        if ( handlers.isEmpty() )
+        {
+            sender.sendMessage( ChatColor.BLUE + "No event handler timings recorded."
+                    + ( pluginManager.isEventProfiling() ? "" : " Enable profiling with /bungeeprofile on" ) );
+            return;
+        }
+
+        // Slowest first, as a single stalled call holds up every connection on that thread
+        Collections.sort( handlers, new Comparator<Map.Entry<Plugin, EventHandlerMethod>>()
+        {
+            @Override
+            public int compare(Map.Entry<Plugin, EventHandlerMethod> o1, Map.Entry<Plugin, EventHandlerMethod> o2)
+            {
+                return Long.compare( o2.getValue().getTimings().getMax(), o1.getValue().getTimings().getMax() );
+            }
+        } );
+
+        sender.sendMessage( ChatColor.BLUE + "Slowest event handlers" + ( pluginManager.isEventProfiling() ? "" : " (profiling disabled)" ) + ":" );
+        for ( Map.Entry<Plugin, EventHandlerMethod> entry : handlers.subList( 0, Math.min( handlers.size(), SHOWN_HANDLERS ) ) )
+        {
+            EventHandlerMethod handler = entry.getValue();
+            EventHandlerTimings timings = handler.getTimings();
+            String owner = ( entry.getKey() == null ) ? "BungeeCord" : entry.getKey().getDescription().getName();
+
+            sender.sendMessage( ChatColor.GOLD + owner + " " + ChatColor.WHITE + handler.getListener().getClass().getSimpleName() + "." + handler.getMethod().getName()
+                    + "(" + handler.getMethod().getParameterTypes()[0].getSimpleName() + ")" + ChatColor.GRAY
+                    + String.format( " calls: %d, p50: %s, p99: %s, max: %s on %s", timings.getCount(), millis( timings.getPercentile( 0.5 ) ),
+                            millis( timings.getPercentile( 0.99 ) ), millis( timings.getMax() ), timings.getMaxThread() ) );
+        }
+    }
+
+    private static String millis(long nanos)
+    {
+        return String.format( "%.3fms", nanos / 1000000D );
+    }
+}
@@ -18,6 +18,7 @@ public class CommandReload extends Command
     public void execute(CommandSender sender, String[] args)
     {
         BungeeCord.getInstance().config.load();
+        BungeeCord.getInstance().getPluginManager().setAsyncEventThreads( BungeeCord.getInstance().config.getAsyncEventThreads() );
         BungeeCord.getInstance().reloadMessages();
         BungeeCord.getInstance().stopListeners();
         BungeeCord.getInstance().startListeners();
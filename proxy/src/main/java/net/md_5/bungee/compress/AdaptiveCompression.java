@@ -0,0 +1,132 @@
+package net.md_5.bungee.compress;
+
+import io.netty.buffer.ByteBuf;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import lombok.Getter;
+import net.md_5.bungee.protocol.DefinedPacket;
+
+/**
+ * Tunes compression for a single connection. Packet types which barely shrink
+ * are sent uncompressed, and the compression level is lowered whilst this
+ * connection spends a lot of time compressing or the machine is busy, and
+ * raised again once neither is the case.
+ * <br>
+ * Sending a packet above the threshold uncompressed is always allowed by the
+ * protocol, so unlike lowering the threshold this is safe to do at any time.
+ */
+public class AdaptiveCompression
+{
+
+    private static final int MIN_LEVEL = Deflater.BEST_SPEED;
+    private static final int MAX_LEVEL = Deflater.BEST_COMPRESSION;
+    private static final int DEFAULT_LEVEL = 6;
+    /**
+     * Packet types which compress to more than this fraction of their size
+     * are not worth the time.
+     */
+    private static final float INCOMPRESSIBLE_RATIO = 0.9f;
+    /**
+     * How many packets of a type deemed incompressible are sent before trying
+     * to compress one again, in case its contents have changed.
+     */
+    private static final int PROBE_INTERVAL = 64;
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos( 1 );
+    /**
+     * Time per window a connection may spend compressing before its level is
+     * lowered, and under which it may be raised again.
+     */
+    private static final long HIGH_TIME = TimeUnit.MILLISECONDS.toNanos( 5 );
+    private static final long LOW_TIME = HIGH_TIME / 4;
+    /**
+     * System load per processor above which levels are lowered, and under
+     * which they may be raised again.
+     */
+    private static final double HIGH_LOAD = 0.8;
+    private static final double LOW_LOAD = 0.5;
+    private static final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    private static volatile long loadSampled;
+    private static volatile double load;
+    /*========================================================================*/
+    // Indexed by the first byte of the packet id, which is all of it for every current packet
+    private final float[] ratios = new float[ 128 ];
+    private final int[] skipped = new int[ 128 ];
+    @Getter
+    private int level = DEFAULT_LEVEL;
+    private long windowStart = System.nanoTime();
+    private long windowTime;
+
+    public void compress(int threshold, ByteBuf msg, ByteBuf out) throws DataFormatException
+    {
+        int origSize = msg.readableBytes();
+        int id = msg.getByte( msg.readerIndex() ) & 0x7F;
+        if ( origSize < threshold || !shouldCompress( id ) )
+        {
+            DefinedPacket.writeVarInt( 0, out );
+            out.writeBytes( msg );
+            return;
+        }
+
+        DefinedPacket.writeVarInt( origSize, out );
+
+        int start = out.writerIndex();
+        long time = System.nanoTime();
+        CompressFactory.getDeflater( level ).process( msg, out );
+        long now = System.nanoTime();
+
+        float ratio = (float) ( out.writerIndex() - start ) / origSize;
+        ratios[id] = ( ratios[id] == 0 ) ? ratio : ratios[id] * 0.75f + ratio * 0.25f;
+        update( now, now - time );
+    }
+
+    private boolean shouldCompress(int id)
+    {
+        if ( ratios[id] < INCOMPRESSIBLE_RATIO )
+        {
+            return true;
+        }
+
+        if ( ++skipped[id] >= PROBE_INTERVAL )
+        {
+            skipped[id] = 0;
+            return true;
+        }
+        return false;
+    }
+
+    void update(long now, long elapsed)
+    {
+        windowTime += elapsed;
+        if ( now - windowStart < WINDOW )
+        {
+            return;
+        }
+
+        double currentLoad = getLoad( now );
+        if ( windowTime > HIGH_TIME || currentLoad > HIGH_LOAD )
+        {
+            level = Math.max( MIN_LEVEL, level - 1 );
+        } else if ( windowTime < LOW_TIME && currentLoad < LOW_LOAD )
+        {
+            level = Math.min( MAX_LEVEL, level + 1 );
+        }
+
+        windowStart = now;
+        windowTime = 0;
+    }
+
+    private static double getLoad(long now)
+    {
+        if ( now - loadSampled >= WINDOW )
+        {
+            loadSampled = now;
+            // Negative if not available on this platform, which is treated as idle
+            load = os.getSystemLoadAverage() / os.getAvailableProcessors();
+        }
+
+        return load;
+    }
+}
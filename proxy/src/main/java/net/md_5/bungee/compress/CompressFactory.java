@@ -1,12 +1,101 @@
 package net.md_5.bungee.compress;
 
+import io.netty.util.concurrent.FastThreadLocal;
+import java.util.zip.Deflater;
 import net.md_5.bungee.jni.NativeCode;
 import net.md_5.bungee.jni.zlib.BungeeZlib;
 import net.md_5.bungee.jni.zlib.JavaZlib;
+import net.md_5.bungee.jni.zlib.LibdeflateZlib;
 import net.md_5.bungee.jni.zlib.NativeZlib;
 
 public class CompressFactory
 {
 
     public static final NativeCode<BungeeZlib> zlib = new NativeCode<>( "native-compress", JavaZlib.class, NativeZlib.class );
+    public static final NativeCode<BungeeZlib> libdeflate = new NativeCode<>( "native-libdeflate", JavaZlib.class, LibdeflateZlib.class, "libdeflate.so.0" );
+    /*========================================================================*/
+    // Every packet is compressed independently and on its channel's event loop,
+    // so one stream per event loop is enough rather than one per connection.
+    private static final FastThreadLocal<BungeeZlib> deflater = new ZlibThreadLocal( true, Deflater.DEFAULT_COMPRESSION );
+    private static final FastThreadLocal<BungeeZlib> inflater = new ZlibThreadLocal( false, 0 );
+    private static final ZlibThreadLocal[] leveledDeflaters = new ZlibThreadLocal[ Deflater.BEST_COMPRESSION + 1 ];
+
+    static
+    {
+        for ( int level = 0; level < leveledDeflaters.length; level++ )
+        {
+            leveledDeflaters[level] = new ZlibThreadLocal( true, level );
+        }
+    }
+
+    /**
+     * Creates a new compression stream using the best available
+     * implementation: libdeflate, then native zlib, then Java.
+     *
+     * @return a new, uninitialized stream
+     */
+    public static BungeeZlib newInstance()
+    {
+        return ( libdeflate.isLoaded() ) ? libdeflate.newInstance() : zlib.newInstance();
+    }
+
+    /**
+     * Gets the compressor shared by all channels of the current event loop.
+     *
+     * @return the current thread's compressor
+     */
+    public static BungeeZlib getDeflater()
+    {
+        return deflater.get();
+    }
+
+    /**
+     * Gets the compressor for a specific level shared by all channels of the
+     * current event loop.
+     *
+     * @param level the compression level, 0 to 9
+     * @return the current thread's compressor for that level
+     */
+    public static BungeeZlib getDeflater(int level)
+    {
+        return leveledDeflaters[level].get();
+    }
+
+    /**
+     * Gets the decompressor shared by all channels of the current event loop.
+     *
+     * @return the current thread's decompressor
+     */
+    public static BungeeZlib getInflater()
+    {
+        return inflater.get();
+    }
+
+    private static final class ZlibThreadLocal extends FastThreadLocal<BungeeZlib>
+    {
+
+        private final boolean compress;
+        private final int level;
+
+        private ZlibThreadLocal(boolean compress, int level)
+        {
+            this.compress = compress;
+            this.level = level;
+        }
+
+        @Override
+        protected BungeeZlib initialValue() throws Exception
+        {
+            BungeeZlib instance = newInstance();
+            instance.init( compress, level );
+
+            return instance;
+        }
+
+        @Override
+        protected void onRemoval(BungeeZlib value) throws Exception
+        {
+            value.free();
+        }
+    }
 }
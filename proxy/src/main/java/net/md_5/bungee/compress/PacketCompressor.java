@@ -3,7 +3,8 @@ package net.md_5.bungee.compress;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
-import java.util.zip.Deflater;
+import java.util.zip.DataFormatException;
+import lombok.Getter;
 import lombok.Setter;
 import net.md_5.bungee.jni.zlib.BungeeZlib;
 import net.md_5.bungee.protocol.DefinedPacket;
@@ -11,24 +12,40 @@ import net.md_5.bungee.protocol.DefinedPacket;
 public class PacketCompressor extends MessageToByteEncoder<ByteBuf>
 {
 
-    private final BungeeZlib zlib = CompressFactory.zlib.newInstance();
+    @Getter
     @Setter
     private int threshold = 256;
+    /**
+     * Tuning state if this connection uses adaptive compression, otherwise
+     * null to always compress at the default level.
+     */
+    @Getter
+    @Setter
+    private AdaptiveCompression adaptive;
 
     @Override
-    public void handlerAdded(ChannelHandlerContext ctx) throws Exception
-    {
-        zlib.init( true, Deflater.DEFAULT_COMPRESSION );
-    }
-
-    @Override
-    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception
+    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) throws Exception
     {
-        zlib.free();
+        if ( adaptive == null )
+        {
+            compress( CompressFactory.getDeflater(), threshold, msg, out );
+        } else
+        {
+            adaptive.compress( threshold, msg, out );
+        }
     }
 
-    @Override
-    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) throws Exception
+    /**
+     * Writes a packet in the compressed format, compressing it only if it is
+     * at least as large as the threshold.
+     *
+     * @param zlib the compressor to use
+     * @param threshold the compression threshold
+     * @param msg the encoded packet
+     * @param out the buffer to write it to
+     * @throws DataFormatException if compression fails
+     */
+    public static void compress(BungeeZlib zlib, int threshold, ByteBuf msg, ByteBuf out) throws DataFormatException
     {
         int origSize = msg.readableBytes();
         if ( origSize < threshold )
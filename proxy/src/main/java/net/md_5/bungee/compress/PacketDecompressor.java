@@ -5,25 +5,13 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
 import java.util.List;
-import net.md_5.bungee.jni.zlib.BungeeZlib;
 import net.md_5.bungee.protocol.DefinedPacket;
 
 public class PacketDecompressor extends MessageToMessageDecoder<ByteBuf>
 {
 
-    private final BungeeZlib zlib = CompressFactory.zlib.newInstance();
-
-    @Override
-    public void handlerAdded(ChannelHandlerContext ctx) throws Exception
-    {
-        zlib.init( false, 0 );
-    }
-
-    @Override
-    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception
-    {
-        zlib.free();
-    }
+    // Buffers are now allocated from the declared size, so it must not be trusted blindly
+    private static final int MAXIMUM_UNCOMPRESSED_SIZE = 8 * 1024 * 1024;
 
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception
@@ -35,11 +23,14 @@ public class PacketDecompressor extends MessageToMessageDecoder<ByteBuf>
             in.skipBytes( in.readableBytes() );
         } else
         {
-            ByteBuf decompressed = ctx.alloc().directBuffer();
+            Preconditions.checkState( size > 0 && size <= MAXIMUM_UNCOMPRESSED_SIZE, "Invalid uncompressed packet size %s", size );
+
+            // Sized up front, so the output never has to grow part way through
+            ByteBuf decompressed = ctx.alloc().directBuffer( size );
 
             try
             {
-                zlib.process( in, decompressed );
+                CompressFactory.getInflater().process( in, decompressed );
                 Preconditions.checkState( decompressed.readableBytes() == size, "Decompressed packet size mismatch" );
 
                 out.add( decompressed );
@@ -59,8 +59,22 @@ public class Configuration implements ProxyConfig
     private boolean ipForward;
     private Favicon favicon;
     private int compressionThreshold = 256;
+    /**
+     * Whether the compression level is tuned per connection rather than
+     * fixed.
+     */
+    private boolean adaptiveCompression;
     private boolean preventProxyConnections;
     private boolean forgeSupport;
+    /**
+     * Whether servers may ask for the entity id of the client when it
+     * switches to them.
+     */
+    private boolean entityIdNegotiation;
+    /**
+     * Number of threads event handlers which may block are called on.
+     */
+    private int asyncEventThreads = 16;
 
     public void load()
     {
@@ -90,8 +104,14 @@ public class Configuration implements ProxyConfig
         throttleLimit = adapter.getInt( "connection_throttle_limit", throttleLimit );
         ipForward = adapter.getBoolean( "ip_forward", ipForward );
         compressionThreshold = adapter.getInt( "network_compression_threshold", compressionThreshold );
+        String compressionMode = adapter.getString( "network_compression_mode", "static" );
+        Preconditions.checkArgument( compressionMode.equalsIgnoreCase( "static" ) || compressionMode.equalsIgnoreCase( "adaptive" ), "Unknown network_compression_mode %s", compressionMode );
+        adaptiveCompression = compressionMode.equalsIgnoreCase( "adaptive" );
         preventProxyConnections = adapter.getBoolean( "prevent_proxy_connections", preventProxyConnections );
         forgeSupport = adapter.getBoolean( "forge_support", forgeSupport );
+        entityIdNegotiation = adapter.getBoolean( "entity_id_negotiation", entityIdNegotiation );
+        asyncEventThreads = adapter.getInt( "async_event_threads", asyncEventThreads );
+        Preconditions.checkArgument( asyncEventThreads > 0, "async_event_threads must be positive" );
 
         disabledCommands = new CaseInsensitiveSet( (Collection<String>) adapter.getList( "disabled_commands", Arrays.asList( "disabledcommandhere" ) ) );
 
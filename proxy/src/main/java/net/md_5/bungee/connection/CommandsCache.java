@@ -0,0 +1,138 @@
+package net.md_5.bungee.connection;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.builder.RequiredArgumentBuilder;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.Data;
+import net.md_5.bungee.protocol.DefinedPacket;
+import net.md_5.bungee.protocol.ProtocolConstants;
+import net.md_5.bungee.protocol.packet.Commands;
+
+/**
+ * Holds the encoded Commands packets sent to players, after proxy commands
+ * have been added to the tree sent by a server. Players on the same server and
+ * version who may use the same proxy commands receive identical packets, so
+ * the tree only needs to be decoded and encoded once for all of them.
+ */
+final class CommandsCache
+{
+
+    private static final long MAXIMUM_BYTES = 16 * 1024 * 1024;
+    //
+    private final Cache<Key, byte[]> cache = CacheBuilder.newBuilder()
+            .maximumWeight( MAXIMUM_BYTES )
+            .weigher( new Weigher<Key, byte[]>()
+            {
+                @Override
+                public int weigh(Key key, byte[] encoded)
+                {
+                    // Trees vary a lot in size between servers, so bound the memory held rather than the count
+                    return key.getTree().readableBytes() + encoded.length;
+                }
+            } )
+            .expireAfterAccess( 10, TimeUnit.MINUTES )
+            .build();
+
+    /**
+     * Gets the packet to send instead of a Commands packet from a server,
+     * adding the proxy commands to its tree unless a packet for the same tree
+     * and commands has already been encoded.
+     *
+     * @param server the name of the server which sent the tree
+     * @param version the protocol version of the packet
+     * @param packetId the id of the Commands packet in this version
+     * @param tree the packet as sent by the server, including its id, which is
+     * not modified
+     * @param commands the proxy commands to add to the tree
+     * @return the encoded packet, including its id
+     */
+    byte[] encode(String server, int version, int packetId, ByteBuf tree, List<String> commands)
+    {
+        byte[] encoded = get( server, version, tree, commands );
+        if ( encoded == null )
+        {
+            encoded = addCommands( tree.duplicate(), commands, version, packetId );
+            put( server, version, tree, commands, encoded );
+        }
+        return encoded;
+    }
+
+    /**
+     * Gets a previously encoded packet.
+     *
+     * @param server the name of the server which sent the tree
+     * @param version the protocol version of the packet
+     * @param tree the packet as sent by the server, including its id
+     * @param commands the proxy commands added to the tree
+     * @return the encoded packet, or null if there is none
+     */
+    byte[] get(String server, int version, ByteBuf tree, List<String> commands)
+    {
+        return cache.getIfPresent( new Key( server, version, tree, commands ) );
+    }
+
+    /**
+     * Stores an encoded packet. The server tree is copied, so the given
+     * buffer may be released afterwards.
+     *
+     * @param server the name of the server which sent the tree
+     * @param version the protocol version of the packet
+     * @param tree the packet as sent by the server, including its id
+     * @param commands the proxy commands added to the tree
+     * @param encoded the packet to send instead
+     */
+    void put(String server, int version, ByteBuf tree, List<String> commands, byte[] encoded)
+    {
+        cache.put( new Key( server, version, Unpooled.wrappedBuffer( ByteBufUtil.getBytes( tree ) ), commands ), encoded );
+    }
+
+    private static byte[] addCommands(ByteBuf buf, List<String> added, int version, int packetId)
+    {
+        DefinedPacket.readVarInt( buf );
+        Commands commands = new Commands();
+        commands.read( buf, ProtocolConstants.Direction.TO_CLIENT, version );
+
+        for ( String name : added )
+        {
+            if ( commands.getRoot().getChild( name ) == null )
+            {
+                LiteralCommandNode dummy = LiteralArgumentBuilder.literal( name )
+                        .then( RequiredArgumentBuilder.argument( "args", StringArgumentType.greedyString() )
+                                .suggests( Commands.SuggestionRegistry.ASK_SERVER ) )
+                        .build();
+                commands.getRoot().addChild( dummy );
+            }
+        }
+
+        ByteBuf out = Unpooled.buffer();
+        try
+        {
+            DefinedPacket.writeVarInt( packetId, out );
+            commands.write( out, ProtocolConstants.Direction.TO_CLIENT, version );
+            return DefinedPacket.toArray( out );
+        } finally
+        {
+            out.release();
+        }
+    }
+
+    @Data
+    private static class Key
+    {
+
+        private final String server;
+        private final int version;
+        // Compared by content
+        private final ByteBuf tree;
+        private final List<String> commands;
+    }
+}
@@ -5,13 +5,9 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.io.ByteArrayDataOutput;
 import com.google.common.io.ByteStreams;
-import com.mojang.brigadier.arguments.StringArgumentType;
-import com.mojang.brigadier.builder.LiteralArgumentBuilder;
-import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import com.mojang.brigadier.context.StringRange;
 import com.mojang.brigadier.suggestion.Suggestion;
 import com.mojang.brigadier.suggestion.Suggestions;
-import com.mojang.brigadier.tree.LiteralCommandNode;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
@@ -19,10 +15,13 @@ import java.io.DataInput;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import net.md_5.bungee.BungeeServerInfo;
 import net.md_5.bungee.ServerConnection;
 import net.md_5.bungee.UserConnection;
 import net.md_5.bungee.Util;
+import net.md_5.bungee.api.Callback;
 import net.md_5.bungee.api.ProxyServer;
 import net.md_5.bungee.api.chat.TextComponent;
 import net.md_5.bungee.api.config.ServerInfo;
@@ -39,10 +38,12 @@ import net.md_5.bungee.api.score.Score;
 import net.md_5.bungee.api.score.Scoreboard;
 import net.md_5.bungee.api.score.Team;
 import net.md_5.bungee.chat.ComponentSerializer;
+import net.md_5.bungee.entitymap.EntityMap;
 import net.md_5.bungee.netty.ChannelWrapper;
 import net.md_5.bungee.netty.PacketHandler;
 import net.md_5.bungee.protocol.DefinedPacket;
 import net.md_5.bungee.protocol.PacketWrapper;
+import net.md_5.bungee.protocol.Protocol;
 import net.md_5.bungee.protocol.ProtocolConstants;
 import net.md_5.bungee.protocol.packet.BossBar;
 import net.md_5.bungee.protocol.packet.Commands;
@@ -62,9 +63,14 @@ import net.md_5.bungee.tab.TabList;
 public class DownstreamBridge extends PacketHandler
 {
 
+    private static final int UNKNOWN_ID = -2;
+    private static final CommandsCache COMMANDS_CACHE = new CommandsCache();
+    //
     private final ProxyServer bungee;
     private final UserConnection con;
     private final ServerConnection server;
+    private int commandsId = UNKNOWN_ID;
+    private int playerListItemId = UNKNOWN_ID;
 
     @Override
     public void exception(Throwable t) throws Exception
@@ -115,22 +121,46 @@ public class DownstreamBridge extends PacketHandler
     @Override
     public void handle(PacketWrapper packet) throws Exception
     {
-        con.getEntityRewrite().rewriteClientbound( packet.buf, con.getServerEntityId(), con.getClientEntityId(), con.getPendingConnection().getVersion() );
-        con.sendPacket( packet );
+        int packetId = peekPacketId( packet.buf );
+        if ( packetId == playerListItemId )
+        {
+            rewritePlayerList( packet.buf );
+            return;
+        }
+        if ( packetId == commandsId && sendCommands( packet.buf ) )
+        {
+            return;
+        }
+
+        if ( EntityMap.canRewriteInPlace( con.getServerEntityId(), con.getClientEntityId() ) )
+        {
+            con.getEntityRewrite().rewriteClientbound( packet.buf, con.getServerEntityId(), con.getClientEntityId(), con.getPendingConnection().getVersion() );
+            con.getCh().writeBuffered( packet );
+        } else
+        {
+            PacketWrapper copy = new PacketWrapper( packet.packet, packet.buf.copy() );
+            try
+            {
+                con.getEntityRewrite().rewriteClientbound( copy.buf, con.getServerEntityId(), con.getClientEntityId(), con.getPendingConnection().getVersion() );
+                con.getCh().writeBuffered( copy );
+            } finally
+            {
+                copy.trySingleRelease();
+            }
+        }
     }
 
     @Override
-    public void handle(KeepAlive alive) throws Exception
+    public void readComplete(ChannelWrapper channel) throws Exception
     {
-        server.setSentPingId( alive.getRandomId() );
-        con.setSentPingTime( System.currentTimeMillis() );
+        con.getCh().flush();
     }
 
     @Override
-    public void handle(PlayerListItem playerList) throws Exception
+    public void handle(KeepAlive alive) throws Exception
     {
-        con.getTabListHandler().onUpdate( TabList.rewrite( playerList ) );
-        throw CancelSendSignal.INSTANCE; // Always throw because of profile rewriting
+        server.setSentPingId( alive.getRandomId() );
+        con.setSentPingTime( System.currentTimeMillis() );
     }
 
     @Override
@@ -236,16 +266,49 @@ public class DownstreamBridge extends PacketHandler
     }
 
     @Override
-    public void handle(PluginMessage pluginMessage) throws Exception
+    public void handle(final PluginMessage pluginMessage) throws Exception
     {
-        DataInput in = pluginMessage.getStream();
-        PluginMessageEvent event = new PluginMessageEvent( server, con, pluginMessage.getTag(), pluginMessage.getData().clone() );
-
-        if ( bungee.getPluginManager().callEvent( event ).isCancelled() )
+        if ( bungee.getPluginManager().hasListeners( PluginMessageEvent.class ) )
         {
-            throw CancelSendSignal.INSTANCE;
+            PluginMessageEvent event = new PluginMessageEvent( server, con, pluginMessage.getTag(), pluginMessage.getData().clone() );
+            if ( bungee.getPluginManager().hasAsyncListeners( PluginMessageEvent.class ) )
+            {
+                server.getCh().callEvent( event, new Callback<PluginMessageEvent>()
+                {
+                    @Override
+                    public void done(PluginMessageEvent result, Throwable error)
+                    {
+                        if ( !result.isCancelled() )
+                        {
+                            try
+                            {
+                                handlePluginMessage( pluginMessage );
+                                con.unsafe().sendPacket( pluginMessage );
+                            } catch ( CancelSendSignal ex )
+                            {
+                                // Handled by the proxy
+                            } catch ( Exception ex )
+                            {
+                                server.getCh().getHandle().pipeline().fireExceptionCaught( ex );
+                            }
+                        }
+                    }
+                } );
+                throw CancelSendSignal.INSTANCE;
+            }
+
+            if ( bungee.getPluginManager().callEvent( event ).isCancelled() )
+            {
+                throw CancelSendSignal.INSTANCE;
+            }
         }
 
+        handlePluginMessage( pluginMessage );
+    }
+
+    private void handlePluginMessage(PluginMessage pluginMessage) throws Exception
+    {
+        DataInput in = pluginMessage.getStream();
         if ( pluginMessage.getTag().equals( con.getPendingConnection().getVersion() >= ProtocolConstants.MINECRAFT_1_13 ? "minecraft:brand" : "MC|Brand" ) )
         {
             ByteBuf brand = Unpooled.wrappedBuffer( pluginMessage.getData() );
@@ -376,7 +439,7 @@ public class DownstreamBridge extends PacketHandler
                     if ( server != null )
                     {
                         out.writeUTF( server.getName() );
-                        out.writeInt( server.getPlayers().size() );
+                        out.writeInt( ( server instanceof BungeeServerInfo ) ? ( (BungeeServerInfo) server ).getPlayerCount() : server.getPlayers().size() );
                     }
                 }
             }
@@ -502,6 +565,11 @@ public class DownstreamBridge extends PacketHandler
     @Override
     public void handle(TabCompleteResponse tabCompleteResponse) throws Exception
     {
+        if ( !bungee.getPluginManager().hasListeners( TabCompleteResponseEvent.class ) )
+        {
+            return; // Nothing can change it, so pass on the packet as it is
+        }
+
         List<String> commands = tabCompleteResponse.getCommands();
         if ( commands == null )
         {
@@ -568,30 +636,56 @@ public class DownstreamBridge extends PacketHandler
         con.setDimension( respawn.getDimension() );
     }
 
-    @Override
-    public void handle(Commands commands) throws Exception
+    // Player List Item and Commands packets are not decoded, so they are recognised by their id instead
+    private int peekPacketId(ByteBuf buf)
+    {
+        if ( commandsId == UNKNOWN_ID )
+        {
+            int version = con.getPendingConnection().getVersion();
+            commandsId = Protocol.GAME.getPacketId( ProtocolConstants.Direction.TO_CLIENT, Commands.class, version );
+            playerListItemId = Protocol.GAME.getPacketId( ProtocolConstants.Direction.TO_CLIENT, PlayerListItem.class, version );
+        }
+
+        // Both ids fit in one byte, and the first byte of a longer id has its high bit set so never matches them
+        return ( buf.isReadable() ) ? buf.getUnsignedByte( buf.readerIndex() ) : UNKNOWN_ID;
+    }
+
+    private void rewritePlayerList(ByteBuf buf)
     {
-        boolean modified = false;
+        ByteBuf in = buf.duplicate();
+        PacketWrapper rewritten = new PacketWrapper( null, con.getCh().getHandle().alloc().ioBuffer( in.readableBytes() ) );
+        try
+        {
+            DefinedPacket.writeVarInt( DefinedPacket.readVarInt( in ), rewritten.buf );
+            List<UUID> uuids = new ArrayList<>();
+            PlayerListItem.Action action = TabList.rewrite( in, rewritten.buf, uuids );
+
+            con.getTabListHandler().onUpdate( action, uuids, rewritten );
+        } finally
+        {
+            rewritten.trySingleRelease();
+        }
+    }
 
+    private boolean sendCommands(ByteBuf buf)
+    {
+        List<String> added = new ArrayList<>();
         for ( Map.Entry<String, Command> command : bungee.getPluginManager().getCommands() )
         {
-            if ( !bungee.getDisabledCommands().contains( command.getKey() ) && commands.getRoot().getChild( command.getKey() ) == null && command.getValue().hasPermission( con ) )
+            if ( !bungee.getDisabledCommands().contains( command.getKey() ) && command.getValue().hasPermission( con ) )
             {
-                LiteralCommandNode dummy = LiteralArgumentBuilder.literal( command.getKey() )
-                        .then( RequiredArgumentBuilder.argument( "args", StringArgumentType.greedyString() )
-                                .suggests( Commands.SuggestionRegistry.ASK_SERVER ) )
-                        .build();
-                commands.getRoot().addChild( dummy );
-
-                modified = true;
+                added.add( command.getKey() );
             }
         }
 
-        if ( modified )
+        if ( added.isEmpty() )
         {
-            con.unsafe().sendPacket( commands );
-            throw CancelSendSignal.INSTANCE;
+            return false;
         }
+
+        byte[] encoded = COMMANDS_CACHE.encode( server.getInfo().getName(), con.getPendingConnection().getVersion(), commandsId, buf, added );
+        con.getCh().writeBuffered( Unpooled.wrappedBuffer( encoded ) );
+        return true;
     }
 
     @Override
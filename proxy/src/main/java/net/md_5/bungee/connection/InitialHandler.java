@@ -516,7 +516,10 @@ public class InitialHandler extends PacketHandler implements PendingConnection
                             unsafe.sendPacket( new LoginSuccess( getUniqueId().toString(), getName() ) ); // With dashes in between
                             ch.setProtocol( Protocol.GAME );
 
-                            ch.getHandle().pipeline().get( HandlerBoss.class ).setHandler( new UpstreamBridge( bungee, userCon ) );
+                            UpstreamBridge bridge = new UpstreamBridge( bungee, userCon );
+                            ch.getHandle().pipeline().get( HandlerBoss.class ).setHandler( bridge );
+                            // Everything else is forwarded as is, so don't bother decoding it
+                            ch.setHandledPackets( bridge.getHandledPackets() );
                             bungee.getPluginManager().callEvent( new PostLoginEvent( userCon ) );
                             ServerInfo server;
                             if ( bungee.getReconnectHandler() != null )
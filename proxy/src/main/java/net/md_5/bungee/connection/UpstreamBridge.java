@@ -11,6 +11,7 @@ import java.util.List;
 import net.md_5.bungee.BungeeCord;
 import net.md_5.bungee.UserConnection;
 import net.md_5.bungee.Util;
+import net.md_5.bungee.api.Callback;
 import net.md_5.bungee.api.ProxyServer;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
 import net.md_5.bungee.api.event.ChatEvent;
@@ -18,6 +19,7 @@ import net.md_5.bungee.api.event.PlayerDisconnectEvent;
 import net.md_5.bungee.api.event.PluginMessageEvent;
 import net.md_5.bungee.api.event.SettingsChangedEvent;
 import net.md_5.bungee.api.event.TabCompleteEvent;
+import net.md_5.bungee.entitymap.EntityMap;
 import net.md_5.bungee.forge.ForgeConstants;
 import net.md_5.bungee.netty.ChannelWrapper;
 import net.md_5.bungee.netty.PacketHandler;
@@ -113,8 +115,31 @@ public class UpstreamBridge extends PacketHandler
     {
         if ( con.getServer() != null )
         {
-            con.getEntityRewrite().rewriteServerbound( packet.buf, con.getClientEntityId(), con.getServerEntityId(), con.getPendingConnection().getVersion() );
-            con.getServer().getCh().write( packet );
+            if ( EntityMap.canRewriteInPlace( con.getClientEntityId(), con.getServerEntityId() ) )
+            {
+                con.getEntityRewrite().rewriteServerbound( packet.buf, con.getClientEntityId(), con.getServerEntityId(), con.getPendingConnection().getVersion() );
+                con.getServer().getCh().writeBuffered( packet );
+            } else
+            {
+                PacketWrapper copy = new PacketWrapper( packet.packet, packet.buf.copy() );
+                try
+                {
+                    con.getEntityRewrite().rewriteServerbound( copy.buf, con.getClientEntityId(), con.getServerEntityId(), con.getPendingConnection().getVersion() );
+                    con.getServer().getCh().writeBuffered( copy );
+                } finally
+                {
+                    copy.trySingleRelease();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void readComplete(ChannelWrapper channel) throws Exception
+    {
+        if ( con.getServer() != null )
+        {
+            con.getServer().getCh().flush();
         }
     }
 
@@ -133,20 +158,31 @@ public class UpstreamBridge extends PacketHandler
     }
 
     @Override
-    public void handle(Chat chat) throws Exception
+    public void handle(final Chat chat) throws Exception
     {
         int maxLength = ( con.getPendingConnection().getVersion() >= ProtocolConstants.MINECRAFT_1_11 ) ? 256 : 100;
         Preconditions.checkArgument( chat.getMessage().length() <= maxLength, "Chat message too long" ); // Mojang limit, check on updates
 
         ChatEvent chatEvent = new ChatEvent( con, con.getServer(), chat.getMessage() );
-        if ( !bungee.getPluginManager().callEvent( chatEvent ).isCancelled() )
+        con.getCh().callEvent( chatEvent, new Callback<ChatEvent>()
         {
-            chat.setMessage( chatEvent.getMessage() );
-            if ( !chatEvent.isCommand() || !bungee.getPluginManager().dispatchCommand( con, chat.getMessage().substring( 1 ) ) )
+            @Override
+            public void done(ChatEvent result, Throwable error)
             {
-                con.getServer().unsafe().sendPacket( chat );
+                if ( !result.isCancelled() )
+                {
+                    chat.setMessage( result.getMessage() );
+                    if ( !result.isCommand() || !bungee.getPluginManager().dispatchCommand( con, chat.getMessage().substring( 1 ) ) )
+                    {
+                        // May have switched servers while async handlers ran
+                        if ( con.getServer() != null )
+                        {
+                            con.getServer().unsafe().sendPacket( chat );
+                        }
+                    }
+                }
             }
-        }
+        } );
         throw CancelSendSignal.INSTANCE;
     }
 
@@ -199,12 +235,14 @@ public class UpstreamBridge extends PacketHandler
     {
         con.setSettings( settings );
 
-        SettingsChangedEvent settingsEvent = new SettingsChangedEvent( con );
-        bungee.getPluginManager().callEvent( settingsEvent );
+        if ( bungee.getPluginManager().hasListeners( SettingsChangedEvent.class ) )
+        {
+            bungee.getPluginManager().callEvent( new SettingsChangedEvent( con ) );
+        }
     }
 
     @Override
-    public void handle(PluginMessage pluginMessage) throws Exception
+    public void handle(final PluginMessage pluginMessage) throws Exception
     {
         if ( pluginMessage.getTag().equals( "BungeeCord" ) )
         {
@@ -235,12 +273,40 @@ public class UpstreamBridge extends PacketHandler
             }
         }
 
-        PluginMessageEvent event = new PluginMessageEvent( con, con.getServer(), pluginMessage.getTag(), pluginMessage.getData().clone() );
-        if ( bungee.getPluginManager().callEvent( event ).isCancelled() )
+        if ( bungee.getPluginManager().hasListeners( PluginMessageEvent.class ) )
         {
-            throw CancelSendSignal.INSTANCE;
+            PluginMessageEvent event = new PluginMessageEvent( con, con.getServer(), pluginMessage.getTag(), pluginMessage.getData().clone() );
+            if ( bungee.getPluginManager().hasAsyncListeners( PluginMessageEvent.class ) )
+            {
+                con.getCh().callEvent( event, new Callback<PluginMessageEvent>()
+                {
+                    @Override
+                    public void done(PluginMessageEvent result, Throwable error)
+                    {
+                        if ( !result.isCancelled() )
+                        {
+                            relay( pluginMessage );
+                            if ( con.getServer() != null )
+                            {
+                                con.getServer().unsafe().sendPacket( pluginMessage );
+                            }
+                        }
+                    }
+                } );
+                throw CancelSendSignal.INSTANCE;
+            }
+
+            if ( bungee.getPluginManager().callEvent( event ).isCancelled() )
+            {
+                throw CancelSendSignal.INSTANCE;
+            }
         }
 
+        relay( pluginMessage );
+    }
+
+    private void relay(PluginMessage pluginMessage)
+    {
         // TODO: Unregister as well?
         if ( PluginMessage.SHOULD_RELAY.apply( pluginMessage ) )
         {
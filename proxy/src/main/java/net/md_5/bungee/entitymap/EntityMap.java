@@ -1,10 +1,7 @@
 package net.md_5.bungee.entitymap;
 
-import com.flowpowered.nbt.stream.NBTInputStream;
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import com.google.common.annotations.VisibleForTesting;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufInputStream;
-import java.io.IOException;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import net.md_5.bungee.protocol.DefinedPacket;
@@ -17,11 +14,72 @@ import net.md_5.bungee.protocol.ProtocolConstants;
 public abstract class EntityMap
 {
 
-    private final boolean[] clientboundInts = new boolean[ 256 ];
-    private final boolean[] clientboundVarInts = new boolean[ 256 ];
+    /**
+     * Entity map which leaves all packets untouched, for connections whose
+     * client and server entity ids are the same.
+     */
+    public static final EntityMap NOOP = new EntityMap()
+    {
+        @Override
+        public void rewriteServerbound(ByteBuf packet, int oldId, int newId)
+        {
+        }
+
+        @Override
+        public void rewriteServerbound(ByteBuf packet, int oldId, int newId, int protocolVersion)
+        {
+        }
 
-    private final boolean[] serverboundInts = new boolean[ 256 ];
-    private final boolean[] serverboundVarInts = new boolean[ 256 ];
+        @Override
+        public void rewriteClientbound(ByteBuf packet, int oldId, int newId)
+        {
+        }
+
+        @Override
+        public void rewriteClientbound(ByteBuf packet, int oldId, int newId, int protocolVersion)
+        {
+        }
+    };
+
+    private final Rewrite[] clientboundRewrites = new Rewrite[ 256 ];
+    private final Rewrite[] serverboundRewrites = new Rewrite[ 256 ];
+
+    /**
+     * Layout of the entity ids contained in a packet, directly following the
+     * packet id.
+     */
+    enum Rewrite
+    {
+
+        /**
+         * A single int id.
+         */
+        INT,
+        /**
+         * Two consecutive int ids.
+         */
+        INT_INT,
+        /**
+         * A single varint id.
+         */
+        VARINT,
+        /**
+         * Two consecutive varint ids.
+         */
+        VARINT_VARINT,
+        /**
+         * A varint id after two other varints.
+         */
+        THIRD_VARINT,
+        /**
+         * A varint count followed by that many varint ids.
+         */
+        VARINT_ARRAY,
+        /**
+         * A varint id followed by a varint array of ids.
+         */
+        VARINT_VARINT_ARRAY;
+    }
 
     // Returns the correct entity map for the protocol version
     public static EntityMap getEntityMap(int version)
@@ -63,29 +121,42 @@ public abstract class EntityMap
         throw new RuntimeException( "Version " + version + " has no entity map" );
     }
 
-    protected void addRewrite(int id, ProtocolConstants.Direction direction, boolean varint)
+    /**
+     * Checks whether swapping the two given ids can never change the length of
+     * a packet. Decoded packets are fixed size slices of the network buffer,
+     * so they may only be rewritten directly if this holds.
+     *
+     * @param oldId the first entity id
+     * @param newId the second entity id
+     * @return whether packets can be rewritten without copying them first
+     */
+    public static boolean canRewriteInPlace(int oldId, int newId)
+    {
+        return DefinedPacket.getVarIntSize( oldId ) == DefinedPacket.getVarIntSize( newId )
+                && DefinedPacket.getVarIntSize( oldId + 1 ) == DefinedPacket.getVarIntSize( newId + 1 ) // fishing hooks and arrows
+                && ( oldId > 0 ) == ( newId > 0 ); // 1.8 object data
+    }
+
+    @VisibleForTesting
+    Rewrite[] getRewrites(ProtocolConstants.Direction direction)
+    {
+        return ( direction == ProtocolConstants.Direction.TO_CLIENT ) ? clientboundRewrites : serverboundRewrites;
+    }
+
+    void addRewrite(int id, ProtocolConstants.Direction direction, Rewrite rewrite)
     {
         if ( direction == ProtocolConstants.Direction.TO_CLIENT )
         {
-            if ( varint )
-            {
-                clientboundVarInts[id] = true;
-            } else
-            {
-                clientboundInts[id] = true;
-            }
-        } else if ( varint )
-        {
-            serverboundVarInts[id] = true;
+            clientboundRewrites[id] = rewrite;
         } else
         {
-            serverboundInts[id] = true;
+            serverboundRewrites[id] = rewrite;
         }
     }
 
     public void rewriteServerbound(ByteBuf packet, int oldId, int newId)
     {
-        rewrite( packet, oldId, newId, serverboundInts, serverboundVarInts );
+        rewrite( packet, oldId, newId, serverboundRewrites );
     }
 
     public void rewriteServerbound(ByteBuf packet, int oldId, int newId, int protocolVersion)
@@ -95,7 +166,7 @@ public abstract class EntityMap
 
     public void rewriteClientbound(ByteBuf packet, int oldId, int newId)
     {
-        rewrite( packet, oldId, newId, clientboundInts, clientboundVarInts );
+        rewrite( packet, oldId, newId, clientboundRewrites );
     }
 
     public void rewriteClientbound(ByteBuf packet, int oldId, int newId, int protocolVersion)
@@ -115,21 +186,60 @@ public abstract class EntityMap
         }
     }
 
-    @SuppressFBWarnings("DLS_DEAD_LOCAL_STORE")
+    /**
+     * Swaps the varint at the given offset if it is one of the two ids. If the
+     * length of the varint changes the remainder of the packet is shifted
+     * within the buffer, which must therefore be able to grow.
+     *
+     * @param packet the packet to rewrite
+     * @param oldId the first entity id
+     * @param newId the second entity id
+     * @param offset the index of the varint, the reader index is left directly
+     * after it
+     */
     protected static void rewriteVarInt(ByteBuf packet, int oldId, int newId, int offset)
     {
-        // Need to rewrite the packet because VarInts are variable length
+        packet.readerIndex( offset );
         int readId = DefinedPacket.readVarInt( packet );
-        int readIdLength = packet.readerIndex() - offset;
         if ( readId == oldId || readId == newId )
         {
-            ByteBuf data = packet.copy();
+            int writeId = ( readId == oldId ) ? newId : oldId;
+            int writeIdLength = DefinedPacket.getVarIntSize( writeId );
+            int readIdEnd = packet.readerIndex();
             packet.readerIndex( offset );
+            if ( writeIdLength != readIdEnd - offset )
+            {
+                shiftBytes( packet, readIdEnd, writeIdLength - ( readIdEnd - offset ) );
+            }
+
+            int previous = packet.writerIndex();
             packet.writerIndex( offset );
-            DefinedPacket.writeVarInt( readId == oldId ? newId : oldId, packet );
-            packet.writeBytes( data );
-            data.release();
+            DefinedPacket.writeVarInt( writeId, packet );
+            packet.writerIndex( previous );
+            packet.readerIndex( offset + writeIdLength );
+        }
+    }
+
+    protected static void rewriteVarIntArray(ByteBuf packet, int oldId, int newId)
+    {
+        int count = DefinedPacket.readVarInt( packet );
+        for ( int i = 0; i < count; i++ )
+        {
+            rewriteVarInt( packet, oldId, newId, packet.readerIndex() );
+        }
+    }
+
+    // Moves everything from index up to the writer index by delta bytes, in place
+    private static void shiftBytes(ByteBuf packet, int index, int delta)
+    {
+        int writerIndex = packet.writerIndex();
+        if ( delta > 0 )
+        {
+            packet.ensureWritable( delta );
         }
+        // One bulk copy, System.arraycopy and Unsafe.copyMemory both allow the source and destination to overlap
+        packet.setBytes( index + delta, packet, index, writerIndex - index );
+        packet.writerIndex( writerIndex + delta );
     }
 
     protected static void rewriteMetaVarInt(ByteBuf packet, int oldId, int newId, int metaIndex)
@@ -138,12 +248,44 @@ public abstract class EntityMap
     }
 
     protected static void rewriteMetaVarInt(ByteBuf packet, int oldId, int newId, int metaIndex, int protocolVersion)
+    {
+        rewriteMetaVarInts( packet, oldId, newId, -1, metaIndex, protocolVersion );
+    }
+
+    protected static void rewriteMetaVarInts(ByteBuf packet, int oldId, int newId, int hookIndex, int metaIndex)
+    {
+        rewriteMetaVarInts( packet, oldId, newId, hookIndex, metaIndex, -1 );
+    }
+
+    /**
+     * Rewrites entity ids stored in entity metadata in a single pass. Entries
+     * are skipped by their length only, and scanning stops as soon as both
+     * indices have been seen.
+     *
+     * @param packet the packet, positioned at the first metadata entry
+     * @param oldId the first entity id
+     * @param newId the second entity id
+     * @param hookIndex the index of an entry storing an entity id plus one,
+     * or -1
+     * @param metaIndex the index of an entry storing an entity id, or -1
+     * @param protocolVersion the protocol version of the metadata, or -1 for
+     * anything before 1.13
+     */
+    protected static void rewriteMetaVarInts(ByteBuf packet, int oldId, int newId, int hookIndex, int metaIndex, int protocolVersion)
     {
         int readerIndex = packet.readerIndex();
+        int remaining = ( ( hookIndex >= 0 ) ? 1 : 0 ) + ( ( metaIndex >= 0 ) ? 1 : 0 );
 
         short index;
-        while ( ( index = packet.readUnsignedByte() ) != 0xFF )
+        while ( remaining > 0 && ( index = packet.readUnsignedByte() ) != 0xFF )
         {
+            int idOffset = -1;
+            if ( index == hookIndex || index == metaIndex )
+            {
+                idOffset = ( index == hookIndex ) ? 1 : 0;
+                remaining--;
+            }
+
             int type = DefinedPacket.readVarInt( packet );
             if ( protocolVersion >= ProtocolConstants.MINECRAFT_1_13 )
             {
@@ -152,7 +294,7 @@ public abstract class EntityMap
                     case 5: // optional chat
                         if ( packet.readBoolean() )
                         {
-                            DefinedPacket.readString( packet );
+                            skipString( packet );
                         }
                         continue;
                     case 15: // particle
@@ -205,20 +347,20 @@ public abstract class EntityMap
                     packet.skipBytes( 1 ); // byte
                     break;
                 case 1:
-                    if ( index == metaIndex )
+                    if ( idOffset >= 0 )
+                    {
+                        rewriteVarInt( packet, oldId + idOffset, newId + idOffset, packet.readerIndex() );
+                    } else
                     {
-                        int position = packet.readerIndex();
-                        rewriteVarInt( packet, oldId, newId, position );
-                        packet.readerIndex( position );
+                        DefinedPacket.readVarInt( packet );
                     }
-                    DefinedPacket.readVarInt( packet );
                     break;
                 case 2:
                     packet.skipBytes( 4 ); // float
                     break;
                 case 3:
                 case 4:
-                    DefinedPacket.readString( packet );
+                    skipString( packet );
                     break;
                 case 5:
                     readSkipSlot( packet, protocolVersion );
@@ -230,7 +372,7 @@ public abstract class EntityMap
                     packet.skipBytes( 12 ); // float, float, float
                     break;
                 case 8:
-                    packet.readLong();
+                    packet.skipBytes( 8 ); // long
                     break;
                 case 9:
                     if ( packet.readBoolean() )
@@ -251,13 +393,7 @@ public abstract class EntityMap
                     DefinedPacket.readVarInt( packet );
                     break;
                 case 13:
-                    try
-                    {
-                        new NBTInputStream( new ByteBufInputStream( packet ), false ).readTag();
-                    } catch ( IOException ex )
-                    {
-                        throw new RuntimeException( ex );
-                    }
+                    skipTag( packet );
                     break;
                 case 15:
                     DefinedPacket.readVarInt( packet );
@@ -265,13 +401,13 @@ public abstract class EntityMap
                     DefinedPacket.readVarInt( packet );
                     break;
                 case 16:
-                    if ( index == metaIndex )
+                    if ( idOffset >= 0 )
+                    {
+                        rewriteVarInt( packet, oldId + idOffset + 1, newId + idOffset + 1, packet.readerIndex() );
+                    } else
                     {
-                        int position = packet.readerIndex();
-                        rewriteVarInt( packet, oldId + 1, newId + 1, position );
-                        packet.readerIndex( position );
+                        DefinedPacket.readVarInt( packet );
                     }
-                    DefinedPacket.readVarInt( packet );
                     break;
                 case 17:
                     DefinedPacket.readVarInt( packet );
@@ -294,35 +430,115 @@ public abstract class EntityMap
             }
             packet.skipBytes( ( protocolVersion >= ProtocolConstants.MINECRAFT_1_13 ) ? 1 : 3 ); // byte vs byte, short
 
-            int position = packet.readerIndex();
-            if ( packet.readByte() != 0 )
-            {
-                packet.readerIndex( position );
+            skipTag( packet );
+        }
+    }
+
+    private static void skipString(ByteBuf packet)
+    {
+        packet.skipBytes( DefinedPacket.readVarInt( packet ) );
+    }
 
-                try
+    // Skips a named NBT tag, an end tag stands for no tag at all
+    private static void skipTag(ByteBuf packet)
+    {
+        byte type = packet.readByte();
+        if ( type != 0 )
+        {
+            packet.skipBytes( packet.readUnsignedShort() ); // name
+            skipTagPayload( packet, type );
+        }
+    }
+
+    private static void skipTagPayload(ByteBuf packet, byte type)
+    {
+        switch ( type )
+        {
+            case 1: // byte
+                packet.skipBytes( 1 );
+                break;
+            case 2: // short
+                packet.skipBytes( 2 );
+                break;
+            case 3: // int
+            case 5: // float
+                packet.skipBytes( 4 );
+                break;
+            case 4: // long
+            case 6: // double
+                packet.skipBytes( 8 );
+                break;
+            case 7: // byte array
+                packet.skipBytes( packet.readInt() );
+                break;
+            case 8: // string
+                packet.skipBytes( packet.readUnsignedShort() );
+                break;
+            case 9: // list
+                byte listType = packet.readByte();
+                int length = packet.readInt();
+                for ( int i = 0; i < length; i++ )
                 {
-                    new NBTInputStream( new ByteBufInputStream( packet ), false ).readTag();
-                } catch ( IOException ex )
+                    skipTagPayload( packet, listType );
+                }
+                break;
+            case 10: // compound
+                while ( ( type = packet.readByte() ) != 0 )
                 {
-                    throw new RuntimeException( ex );
+                    packet.skipBytes( packet.readUnsignedShort() );
+                    skipTagPayload( packet, type );
                 }
-            }
+                break;
+            case 11: // int array
+                packet.skipBytes( Math.multiplyExact( packet.readInt(), 4 ) );
+                break;
+            case 12: // long array
+                packet.skipBytes( Math.multiplyExact( packet.readInt(), 8 ) );
+                break;
+            default:
+                throw new IllegalArgumentException( "Unknown NBT tag " + type );
         }
     }
 
-    // Handles simple packets
-    private static void rewrite(ByteBuf packet, int oldId, int newId, boolean[] ints, boolean[] varints)
+    // Handles all packets described by the rewrite table
+    @VisibleForTesting
+    static void rewrite(ByteBuf packet, int oldId, int newId, Rewrite[] rewrites)
     {
         int readerIndex = packet.readerIndex();
         int packetId = DefinedPacket.readVarInt( packet );
-        int packetIdLength = packet.readerIndex() - readerIndex;
+        Rewrite rewrite = ( packetId >= 0 && packetId < rewrites.length ) ? rewrites[packetId] : null;
 
-        if ( ints[packetId] )
-        {
-            rewriteInt( packet, oldId, newId, readerIndex + packetIdLength );
-        } else if ( varints[packetId] )
+        if ( rewrite != null )
         {
-            rewriteVarInt( packet, oldId, newId, readerIndex + packetIdLength );
+            int offset = packet.readerIndex();
+            switch ( rewrite )
+            {
+                case INT_INT:
+                    rewriteInt( packet, oldId, newId, offset + 4 );
+                // Fall through on purpose to the first id
+                case INT:
+                    rewriteInt( packet, oldId, newId, offset );
+                    break;
+                case THIRD_VARINT:
+                    DefinedPacket.readVarInt( packet );
+                    DefinedPacket.readVarInt( packet );
+                    rewriteVarInt( packet, oldId, newId, packet.readerIndex() );
+                    break;
+                case VARINT_VARINT:
+                    rewriteVarInt( packet, oldId, newId, offset );
+                    rewriteVarInt( packet, oldId, newId, packet.readerIndex() );
+                    break;
+                case VARINT_VARINT_ARRAY:
+                    rewriteVarInt( packet, oldId, newId, offset );
+                    rewriteVarIntArray( packet, oldId, newId );
+                    break;
+                case VARINT_ARRAY:
+                    rewriteVarIntArray( packet, oldId, newId );
+                    break;
+                case VARINT:
+                    rewriteVarInt( packet, oldId, newId, offset );
+                    break;
+            }
         }
         packet.readerIndex( readerIndex );
     }
@@ -16,34 +16,35 @@ class EntityMap_1_12 extends EntityMap
 
     EntityMap_1_12()
     {
-        addRewrite( 0x00, ProtocolConstants.Direction.TO_CLIENT, true ); // Spawn Object : PacketPlayOutSpawnEntity
-        addRewrite( 0x01, ProtocolConstants.Direction.TO_CLIENT, true ); // Spawn Experience Orb : PacketPlayOutSpawnEntityExperienceOrb
-        addRewrite( 0x03, ProtocolConstants.Direction.TO_CLIENT, true ); // Spawn Mob : PacketPlayOutSpawnEntityLiving
-        addRewrite( 0x04, ProtocolConstants.Direction.TO_CLIENT, true ); // Spawn Painting : PacketPlayOutSpawnEntityPainting
-        addRewrite( 0x05, ProtocolConstants.Direction.TO_CLIENT, true ); // Spawn Player : PacketPlayOutNamedEntitySpawn
-        addRewrite( 0x06, ProtocolConstants.Direction.TO_CLIENT, true ); // Animation : PacketPlayOutAnimation
-        addRewrite( 0x08, ProtocolConstants.Direction.TO_CLIENT, true ); // Block Break Animation : PacketPlayOutBlockBreakAnimation
-        addRewrite( 0x1B, ProtocolConstants.Direction.TO_CLIENT, false ); // Entity Status : PacketPlayOutEntityStatus
-        addRewrite( 0x25, ProtocolConstants.Direction.TO_CLIENT, true ); // Entity : PacketPlayOutEntity
-        addRewrite( 0x26, ProtocolConstants.Direction.TO_CLIENT, true ); // Entity Relative Move : PacketPlayOutRelEntityMove
-        addRewrite( 0x27, ProtocolConstants.Direction.TO_CLIENT, true ); // Entity Look and Relative Move : PacketPlayOutRelEntityMoveLook
-        addRewrite( 0x28, ProtocolConstants.Direction.TO_CLIENT, true ); // Entity Look : PacketPlayOutEntityLook
-        addRewrite( 0x2F, ProtocolConstants.Direction.TO_CLIENT, true ); // Use bed : PacketPlayOutBed
-        addRewrite( 0x32, ProtocolConstants.Direction.TO_CLIENT, true ); // Remove Entity Effect : PacketPlayOutRemoveEntityEffect
-        addRewrite( 0x35, ProtocolConstants.Direction.TO_CLIENT, true ); // Entity Head Look : PacketPlayOutEntityHeadRotation
-        addRewrite( 0x38, ProtocolConstants.Direction.TO_CLIENT, true ); // Camera : PacketPlayOutCamera
-        addRewrite( 0x3B, ProtocolConstants.Direction.TO_CLIENT, true ); // Entity Metadata : PacketPlayOutEntityMetadata
-        addRewrite( 0x3C, ProtocolConstants.Direction.TO_CLIENT, false ); // Attach Entity : PacketPlayOutAttachEntity
-        addRewrite( 0x3D, ProtocolConstants.Direction.TO_CLIENT, true ); // Entity Velocity : PacketPlayOutEntityVelocity
-        addRewrite( 0x3E, ProtocolConstants.Direction.TO_CLIENT, true ); // Entity Equipment : PacketPlayOutEntityEquipment
-        addRewrite( 0x42, ProtocolConstants.Direction.TO_CLIENT, true ); // Set Passengers : PacketPlayOutMount
-        addRewrite( 0x4A, ProtocolConstants.Direction.TO_CLIENT, true ); // Collect Item : PacketPlayOutCollect
-        addRewrite( 0x4B, ProtocolConstants.Direction.TO_CLIENT, true ); // Entity Teleport : PacketPlayOutEntityTeleport
-        addRewrite( 0x4D, ProtocolConstants.Direction.TO_CLIENT, true ); // Entity Properties : PacketPlayOutUpdateAttributes
-        addRewrite( 0x4E, ProtocolConstants.Direction.TO_CLIENT, true ); // Entity Effect : PacketPlayOutEntityEffect
+        addRewrite( 0x00, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Spawn Object : PacketPlayOutSpawnEntity
+        addRewrite( 0x01, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Spawn Experience Orb : PacketPlayOutSpawnEntityExperienceOrb
+        addRewrite( 0x03, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Spawn Mob : PacketPlayOutSpawnEntityLiving
+        addRewrite( 0x04, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Spawn Painting : PacketPlayOutSpawnEntityPainting
+        addRewrite( 0x05, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Spawn Player : PacketPlayOutNamedEntitySpawn
+        addRewrite( 0x06, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Animation : PacketPlayOutAnimation
+        addRewrite( 0x08, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Block Break Animation : PacketPlayOutBlockBreakAnimation
+        addRewrite( 0x1B, ProtocolConstants.Direction.TO_CLIENT, Rewrite.INT ); // Entity Status : PacketPlayOutEntityStatus
+        addRewrite( 0x25, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Entity : PacketPlayOutEntity
+        addRewrite( 0x26, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Entity Relative Move : PacketPlayOutRelEntityMove
+        addRewrite( 0x27, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Entity Look and Relative Move : PacketPlayOutRelEntityMoveLook
+        addRewrite( 0x28, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Entity Look : PacketPlayOutEntityLook
+        addRewrite( 0x2F, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Use bed : PacketPlayOutBed
+        addRewrite( 0x31, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT_ARRAY ); // Destroy Entities : PacketPlayOutEntityDestroy
+        addRewrite( 0x32, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Remove Entity Effect : PacketPlayOutRemoveEntityEffect
+        addRewrite( 0x35, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Entity Head Look : PacketPlayOutEntityHeadRotation
+        addRewrite( 0x38, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Camera : PacketPlayOutCamera
+        addRewrite( 0x3B, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Entity Metadata : PacketPlayOutEntityMetadata
+        addRewrite( 0x3C, ProtocolConstants.Direction.TO_CLIENT, Rewrite.INT_INT ); // Attach Entity : PacketPlayOutAttachEntity
+        addRewrite( 0x3D, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Entity Velocity : PacketPlayOutEntityVelocity
+        addRewrite( 0x3E, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Entity Equipment : PacketPlayOutEntityEquipment
+        addRewrite( 0x42, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT_VARINT_ARRAY ); // Set Passengers : PacketPlayOutMount
+        addRewrite( 0x4A, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT_VARINT ); // Collect Item : PacketPlayOutCollect
+        addRewrite( 0x4B, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Entity Teleport : PacketPlayOutEntityTeleport
+        addRewrite( 0x4D, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Entity Properties : PacketPlayOutUpdateAttributes
+        addRewrite( 0x4E, ProtocolConstants.Direction.TO_CLIENT, Rewrite.VARINT ); // Entity Effect : PacketPlayOutEntityEffect
 
-        addRewrite( 0x0B, ProtocolConstants.Direction.TO_SERVER, true ); // Use Entity : PacketPlayInUseEntity
-        addRewrite( 0x15, ProtocolConstants.Direction.TO_SERVER, true ); // Entity Action : PacketPlayInEntityAction
+        addRewrite( 0x0B, ProtocolConstants.Direction.TO_SERVER, Rewrite.VARINT ); // Use Entity : PacketPlayInUseEntity
+        addRewrite( 0x15, ProtocolConstants.Direction.TO_SERVER, Rewrite.VARINT ); // Entity Action : PacketPlayInEntityAction
     }
 
     @Override
@@ -56,42 +57,8 @@ class EntityMap_1_12 extends EntityMap
         int readerIndex = packet.readerIndex();
         int packetId = DefinedPacket.readVarInt( packet );
         int packetIdLength = packet.readerIndex() - readerIndex;
-        int jumpIndex = packet.readerIndex();
         switch ( packetId )
         {
-            case 0x3C /* Attach Entity : PacketPlayOutAttachEntity */:
-                rewriteInt( packet, oldId, newId, readerIndex + packetIdLength + 4 );
-                break;
-            case 0x4A /* Collect Item : PacketPlayOutCollect */:
-                DefinedPacket.readVarInt( packet );
-                rewriteVarInt( packet, oldId, newId, packet.readerIndex() );
-                break;
-            case 0x42 /* Attach Entity : PacketPlayOutMount */:
-                DefinedPacket.readVarInt( packet );
-                jumpIndex = packet.readerIndex();
-            // Fall through on purpose to int array of IDs
-            case 0x31 /* Destroy Entities : PacketPlayOutEntityDestroy */:
-                int count = DefinedPacket.readVarInt( packet );
-                int[] ids = new int[ count ];
-                for ( int i = 0; i < count; i++ )
-                {
-                    ids[i] = DefinedPacket.readVarInt( packet );
-                }
-                packet.readerIndex( jumpIndex );
-                packet.writerIndex( jumpIndex );
-                DefinedPacket.writeVarInt( count, packet );
-                for ( int id : ids )
-                {
-                    if ( id == oldId )
-                    {
-                        id = newId;
-                    } else if ( id == newId )
-                    {
-                        id = oldId;
-                    }
-                    DefinedPacket.writeVarInt( id, packet );
-                }
-                break;
             case 0x00 /* Spawn Object : PacketPlayOutSpawnEntity */:
                 DefinedPacket.readVarInt( packet );
                 DefinedPacket.readUUID( packet );
@@ -148,8 +115,7 @@ class EntityMap_1_12 extends EntityMap
                 break;
             case 0x3B /* EntityMetadata : PacketPlayOutEntityMetadata */:
                 DefinedPacket.readVarInt( packet ); // Entity ID
-                rewriteMetaVarInt( packet, oldId + 1, newId + 1, 6 ); // fishing hook
-                rewriteMetaVarInt( packet, oldId, newId, 7 ); // fireworks (et al)
+                rewriteMetaVarInts( packet, oldId, newId, 6, 7 ); // fishing hook, fireworks (et al)
                 break;
         }
         packet.readerIndex( readerIndex );
@@ -1,16 +1,25 @@
 package net.md_5.bungee.netty;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import java.net.InetSocketAddress;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import lombok.Getter;
 import lombok.Setter;
+import net.md_5.bungee.BungeeCord;
+import net.md_5.bungee.api.Callback;
+import net.md_5.bungee.api.plugin.Event;
+import net.md_5.bungee.api.plugin.PluginManager;
+import net.md_5.bungee.compress.AdaptiveCompression;
 import net.md_5.bungee.compress.PacketCompressor;
 import net.md_5.bungee.compress.PacketDecompressor;
+import net.md_5.bungee.protocol.DefinedPacket;
 import net.md_5.bungee.protocol.MinecraftDecoder;
 import net.md_5.bungee.protocol.MinecraftEncoder;
 import net.md_5.bungee.protocol.PacketWrapper;
@@ -20,6 +29,15 @@ import net.md_5.bungee.protocol.packet.Kick;
 public class ChannelWrapper
 {
 
+    /**
+     * Maximum number of packets, not bytes or time, {@link #writeBuffered(Object)}
+     * will hold back before flushing regardless of whether the read batch has
+     * finished. There is no time bound: a batch always ends with a flush, so
+     * packets are never held longer than the read that produced them.
+     */
+    private static final int MAX_BUFFERED_PACKETS = 64;
+    private static final LongAdder flushes = new LongAdder();
+    private static final LongAdder flushedPackets = new LongAdder();
     private final Channel ch;
     @Getter
     @Setter
@@ -28,6 +46,7 @@ public class ChannelWrapper
     private volatile boolean closed;
     @Getter
     private volatile boolean closing;
+    private int bufferedPackets;
 
     public ChannelWrapper(ChannelHandlerContext ctx)
     {
@@ -47,6 +66,11 @@ public class ChannelWrapper
         ch.pipeline().get( MinecraftEncoder.class ).setProtocolVersion( protocol );
     }
 
+    public void setHandledPackets(Set<Class<? extends DefinedPacket>> handledPackets)
+    {
+        ch.pipeline().get( MinecraftDecoder.class ).setHandledPackets( handledPackets );
+    }
+
     public void write(Object packet)
     {
         if ( !closed )
@@ -59,9 +83,78 @@ public class ChannelWrapper
             {
                 ch.writeAndFlush( packet, ch.voidPromise() );
             }
+            flushes.increment();
+            flushedPackets.increment();
+            // writeAndFlush also flushed anything queued by writeBuffered
+            if ( bufferedPackets > 0 && ch.eventLoop().inEventLoop() )
+            {
+                flushedPackets.add( bufferedPackets );
+                bufferedPackets = 0;
+            }
+        }
+    }
+
+    /**
+     * Writes a packet without flushing it. The packet is sent once
+     * {@link #flush()} is called, which the handler reading from the other
+     * side of the connection does at the end of each read batch, or once
+     * {@link #MAX_BUFFERED_PACKETS} have been queued, whichever comes first.
+     * Outside of this channel's event loop this is the same as
+     * {@link #write(Object)}.
+     *
+     * @param packet the packet to write
+     */
+    public void writeBuffered(Object packet)
+    {
+        if ( !ch.eventLoop().inEventLoop() )
+        {
+            write( packet );
+        } else if ( !closed )
+        {
+            if ( packet instanceof PacketWrapper )
+            {
+                ( (PacketWrapper) packet ).setReleased( true );
+                ch.write( ( (PacketWrapper) packet ).buf, ch.voidPromise() );
+            } else
+            {
+                ch.write( packet, ch.voidPromise() );
+            }
+
+            if ( ++bufferedPackets >= MAX_BUFFERED_PACKETS )
+            {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Flushes any packets queued by {@link #writeBuffered(Object)}. Must be
+     * called from this channel's event loop.
+     */
+    public void flush()
+    {
+        if ( bufferedPackets > 0 )
+        {
+            flushes.increment();
+            flushedPackets.add( bufferedPackets );
+            bufferedPackets = 0;
+
+            ch.flush();
         }
     }
 
+    /**
+     * Gets the average number of packets sent per flush across all channels
+     * since startup.
+     *
+     * @return packets per flush, or 0 if nothing has been flushed yet
+     */
+    public static double getAveragePacketsPerFlush()
+    {
+        long count = flushes.sum();
+        return ( count == 0 ) ? 0 : (double) flushedPackets.sum() / count;
+    }
+
     public void markClosed()
     {
         closed = closing = true;
@@ -118,6 +211,62 @@ public class ChannelWrapper
         }
     }
 
+    /**
+     * Calls an event about a packet read from this channel. If any of its
+     * handlers are marked async, reading from this channel is paused while
+     * they run, so that later packets are only handled once the callback has
+     * finished with this one. Must be called from this channel's event loop.
+     *
+     * @param <T> the event type
+     * @param event the event to call
+     * @param callback called on this channel's event loop once every handler
+     * has been called, unless the channel has closed by then
+     */
+    public <T extends Event> void callEvent(T event, Callback<T> callback)
+    {
+        callEvent( BungeeCord.getInstance().getPluginManager(), event, callback );
+    }
+
+    @VisibleForTesting
+    <T extends Event> void callEvent(PluginManager pluginManager, T event, final Callback<T> callback)
+    {
+        if ( !pluginManager.hasAsyncListeners( event.getClass() ) )
+        {
+            callback.done( pluginManager.callEvent( event ), null );
+            return;
+        }
+
+        final HandlerBoss boss = ch.pipeline().get( HandlerBoss.class );
+        boss.pause();
+        pluginManager.callEvent( event, new Callback<T>()
+        {
+            @Override
+            public void done(final T result, final Throwable error)
+            {
+                ch.eventLoop().execute( new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        try
+                        {
+                            if ( !closed )
+                            {
+                                callback.done( result, error );
+                            }
+                        } catch ( RuntimeException ex )
+                        {
+                            ch.pipeline().fireExceptionCaught( ex );
+                        } finally
+                        {
+                            boss.resume();
+                        }
+                    }
+                } );
+            }
+        } );
+    }
+
     public void addBefore(String baseName, String name, ChannelHandler handler)
     {
         Preconditions.checkState( ch.eventLoop().inEventLoop(), "cannot add handler outside of event loop" );
@@ -134,7 +283,12 @@ public class ChannelWrapper
     {
         if ( ch.pipeline().get( PacketCompressor.class ) == null && compressionThreshold != -1 )
         {
-            addBefore( PipelineUtils.PACKET_ENCODER, "compress", new PacketCompressor() );
+            PacketCompressor compressor = new PacketCompressor();
+            if ( BungeeCord.getInstance().config.isAdaptiveCompression() )
+            {
+                compressor.setAdaptive( new AdaptiveCompression() );
+            }
+            addBefore( PipelineUtils.PACKET_ENCODER, "compress", compressor );
         }
         if ( compressionThreshold != -1 )
         {
@@ -8,6 +8,8 @@ import io.netty.handler.codec.haproxy.HAProxyMessage;
 import io.netty.handler.timeout.ReadTimeoutException;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.Queue;
 import java.util.logging.Level;
 import net.md_5.bungee.api.ProxyServer;
 import net.md_5.bungee.connection.CancelSendSignal;
@@ -28,6 +30,9 @@ public class HandlerBoss extends ChannelInboundHandlerAdapter
 
     private ChannelWrapper channel;
     private PacketHandler handler;
+    // Packets received while paused, handled in order once resumed
+    private final Queue<PacketWrapper> pausedPackets = new ArrayDeque<>();
+    private int pauses;
 
     public void setHandler(PacketHandler handler)
     {
@@ -53,6 +58,8 @@ public class HandlerBoss extends ChannelInboundHandlerAdapter
     @Override
     public void channelInactive(ChannelHandlerContext ctx) throws Exception
     {
+        releasePausedPackets();
+
         if ( handler != null )
         {
             channel.markClosed();
@@ -94,27 +101,108 @@ public class HandlerBoss extends ChannelInboundHandlerAdapter
         if ( handler != null )
         {
             PacketWrapper packet = (PacketWrapper) msg;
-            boolean sendPacket = handler.shouldHandle( packet );
-            try
+            if ( pauses > 0 )
+            {
+                pausedPackets.add( packet );
+                return;
+            }
+
+            handlePacket( packet );
+        }
+    }
+
+    /**
+     * Stops handling packets from this channel until {@link #resume()} is
+     * called the same number of times. Packets already read are held back and
+     * handled in order once resumed. Must be called from the channel's event
+     * loop.
+     */
+    public void pause()
+    {
+        if ( pauses++ == 0 )
+        {
+            channel.getHandle().config().setAutoRead( false );
+        }
+    }
+
+    /**
+     * Resumes handling packets after {@link #pause()}. Must be called from the
+     * channel's event loop.
+     */
+    public void resume()
+    {
+        Preconditions.checkState( pauses > 0, "not paused" );
+        if ( --pauses > 0 )
+        {
+            return;
+        }
+
+        if ( channel.isClosed() )
+        {
+            releasePausedPackets();
+            return;
+        }
+
+        PacketWrapper packet;
+        try
+        {
+            // Handling a packet may pause again, leaving the rest queued
+            while ( pauses == 0 && ( packet = pausedPackets.poll() ) != null )
             {
-                if ( sendPacket && packet.packet != null )
+                handlePacket( packet );
+            }
+            handler.readComplete( channel );
+        } catch ( Exception ex )
+        {
+            channel.getHandle().pipeline().fireExceptionCaught( ex );
+        }
+
+        if ( pauses == 0 )
+        {
+            channel.getHandle().config().setAutoRead( true );
+        }
+    }
+
+    private void handlePacket(PacketWrapper packet) throws Exception
+    {
+        boolean sendPacket = handler.shouldHandle( packet );
+        try
+        {
+            if ( sendPacket && packet.packet != null )
+            {
+                try
                 {
-                    try
-                    {
-                        packet.packet.handle( handler );
-                    } catch ( CancelSendSignal ex )
-                    {
-                        sendPacket = false;
-                    }
-                }
-                if ( sendPacket )
+                    packet.packet.handle( handler );
+                } catch ( CancelSendSignal ex )
                 {
-                    handler.handle( packet );
+                    sendPacket = false;
                 }
-            } finally
+            }
+            if ( sendPacket )
             {
-                packet.trySingleRelease();
+                handler.handle( packet );
             }
+        } finally
+        {
+            packet.trySingleRelease();
+        }
+    }
+
+    private void releasePausedPackets()
+    {
+        PacketWrapper packet;
+        while ( ( packet = pausedPackets.poll() ) != null )
+        {
+            packet.trySingleRelease();
+        }
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception
+    {
+        if ( handler != null )
+        {
+            handler.readComplete( channel );
         }
     }
 
@@ -0,0 +1,124 @@
+package net.md_5.bungee.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import lombok.RequiredArgsConstructor;
+import net.md_5.bungee.compress.CompressFactory;
+import net.md_5.bungee.compress.PacketCompressor;
+import net.md_5.bungee.jni.zlib.BungeeZlib;
+import net.md_5.bungee.protocol.DefinedPacket;
+import net.md_5.bungee.protocol.MinecraftEncoder;
+import net.md_5.bungee.protocol.Protocol;
+
+/**
+ * Sends the same packet to many player channels, encoding and compressing it
+ * only once for every distinct protocol version and compression threshold.
+ * Each channel then only frames and encrypts its own duplicate of the result.
+ * {@link #release()} must be called once the packet has been sent to all
+ * channels.
+ */
+@RequiredArgsConstructor
+public class PacketBroadcast
+{
+
+    private final DefinedPacket packet;
+    private final Map<Long, ByteBuf> encoded = new HashMap<>();
+    private BungeeZlib zlib;
+
+    public void send(ChannelWrapper channel)
+    {
+        if ( channel.isClosed() )
+        {
+            return;
+        }
+
+        ChannelPipeline pipeline = channel.getHandle().pipeline();
+        MinecraftEncoder encoder = pipeline.get( MinecraftEncoder.class );
+        if ( encoder == null || encoder.getProtocol() != Protocol.GAME )
+        {
+            // Still logging in, leave it to the encoder to work out the packet id
+            channel.write( packet );
+            return;
+        }
+
+        PacketCompressor compressor = pipeline.get( PacketCompressor.class );
+        ChannelHandlerContext ctx = ( compressor != null ) ? pipeline.context( compressor ) : pipeline.context( encoder );
+        if ( ctx == null )
+        {
+            // Removed since, must be closing
+            return;
+        }
+
+        int threshold = ( compressor != null ) ? compressor.getThreshold() : -1;
+        Long key = ( (long) encoder.getProtocolVersion() << 32 ) | ( threshold & 0xFFFFFFFFL );
+        ByteBuf buf = encoded.get( key );
+        if ( buf == null )
+        {
+            buf = encode( ctx, encoder, threshold );
+            encoded.put( key, buf );
+        }
+
+        // Skip the encoder and compressor, they have already been applied
+        ctx.writeAndFlush( buf.retainedDuplicate(), ctx.voidPromise() );
+    }
+
+    private ByteBuf encode(ChannelHandlerContext ctx, MinecraftEncoder encoder, int threshold)
+    {
+        ByteBuf buf = ctx.alloc().directBuffer();
+        encoder.encode( packet, buf );
+        if ( threshold == -1 )
+        {
+            return buf;
+        }
+
+        ByteBuf compressed = ctx.alloc().directBuffer();
+        try
+        {
+            if ( zlib == null )
+            {
+                // Not necessarily on an event loop, so don't borrow from CompressFactory
+                zlib = CompressFactory.newInstance();
+                zlib.init( true, Deflater.DEFAULT_COMPRESSION );
+            }
+            PacketCompressor.compress( zlib, threshold, buf, compressed );
+
+            ByteBuf result = compressed;
+            compressed = null;
+            return result;
+        } catch ( DataFormatException ex )
+        {
+            throw new RuntimeException( ex );
+        } finally
+        {
+            buf.release();
+            if ( compressed != null )
+            {
+                compressed.release();
+            }
+        }
+    }
+
+    /**
+     * Releases the encoded copies of the packet. Channels which have been sent
+     * the packet hold their own reference until it is written.
+     */
+    public void release()
+    {
+        for ( ByteBuf buf : encoded.values() )
+        {
+            buf.release();
+        }
+        encoded.clear();
+
+        if ( zlib != null )
+        {
+            zlib.free();
+            zlib = null;
+        }
+    }
+}
@@ -1,10 +1,19 @@
 package net.md_5.bungee.netty;
 
+import com.google.common.collect.ImmutableSet;
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import net.md_5.bungee.protocol.AbstractPacketHandler;
+import net.md_5.bungee.protocol.DefinedPacket;
 import net.md_5.bungee.protocol.PacketWrapper;
 
 public abstract class PacketHandler extends net.md_5.bungee.protocol.AbstractPacketHandler
 {
 
+    private static final ConcurrentMap<Class<?>, Set<Class<? extends DefinedPacket>>> handledPackets = new ConcurrentHashMap<>();
+
     @Override
     public abstract String toString();
 
@@ -32,4 +41,48 @@ public abstract class PacketHandler extends net.md_5.bungee.protocol.AbstractPac
     public void writabilityChanged(ChannelWrapper channel) throws Exception
     {
     }
+
+    /**
+     * Called once the current batch of packets has been read from the
+     * channel. Handlers which forward packets with
+     * {@link ChannelWrapper#writeBuffered(Object)} flush them here.
+     *
+     * @param channel the channel which was read from
+     * @throws Exception any exception
+     */
+    public void readComplete(ChannelWrapper channel) throws Exception
+    {
+    }
+
+    /**
+     * Gets the packets this handler overrides a handle method for. All other
+     * packets are ignored by it, so there is no need to decode them.
+     *
+     * @return the handled packet classes
+     */
+    @SuppressWarnings("unchecked")
+    public Set<Class<? extends DefinedPacket>> getHandledPackets()
+    {
+        Set<Class<? extends DefinedPacket>> handled = handledPackets.get( getClass() );
+        if ( handled == null )
+        {
+            ImmutableSet.Builder<Class<? extends DefinedPacket>> builder = ImmutableSet.builder();
+            for ( Class<?> clazz = getClass(); clazz != AbstractPacketHandler.class; clazz = clazz.getSuperclass() )
+            {
+                for ( Method method : clazz.getDeclaredMethods() )
+                {
+                    if ( method.getName().equals( "handle" ) && !method.isBridge() && method.getParameterTypes().length == 1
+                            && DefinedPacket.class.isAssignableFrom( method.getParameterTypes()[0] ) )
+                    {
+                        builder.add( (Class<? extends DefinedPacket>) method.getParameterTypes()[0] );
+                    }
+                }
+            }
+
+            handled = builder.build();
+            handledPackets.put( getClass(), handled );
+        }
+
+        return handled;
+    }
 }
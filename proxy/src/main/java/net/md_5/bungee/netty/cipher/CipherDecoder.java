@@ -16,7 +16,14 @@ public class CipherDecoder extends MessageToMessageDecoder<ByteBuf>
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) throws Exception
     {
-        out.add( cipher.cipher( ctx, msg ) );
+        if ( canCipherInPlace( msg ) )
+        {
+            cipher.cipher( msg );
+            out.add( msg.retain() );
+        } else
+        {
+            out.add( cipher.cipher( ctx, msg ) );
+        }
     }
 
     @Override
@@ -24,4 +31,16 @@ public class CipherDecoder extends MessageToMessageDecoder<ByteBuf>
     {
         cipher.free();
     }
+
+    /**
+     * Checks whether a buffer can be overwritten with its ciphered contents,
+     * which is the case when it is direct and nobody else holds on to it.
+     *
+     * @param buf the buffer to check
+     * @return whether it is safe to cipher in place
+     */
+    static boolean canCipherInPlace(ByteBuf buf)
+    {
+        return buf.hasMemoryAddress() && buf.refCnt() == 1 && !buf.isReadOnly();
+    }
 }
@@ -2,20 +2,40 @@ package net.md_5.bungee.netty.cipher;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import net.md_5.bungee.jni.cipher.BungeeCipher;
 
 @RequiredArgsConstructor
-public class CipherEncoder extends MessageToByteEncoder<ByteBuf>
+public class CipherEncoder extends MessageToMessageEncoder<ByteBuf>
 {
 
     private final BungeeCipher cipher;
 
     @Override
-    protected void encode(ChannelHandlerContext ctx, ByteBuf in, ByteBuf out) throws Exception
+    protected void encode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception
     {
-        cipher.cipher( in, out );
+        if ( CipherDecoder.canCipherInPlace( in ) )
+        {
+            cipher.cipher( in );
+            out.add( in.retain() );
+        } else
+        {
+            ByteBuf ciphered = ctx.alloc().directBuffer( in.readableBytes() ); // CFB8
+            try
+            {
+                cipher.cipher( in, ciphered );
+                out.add( ciphered );
+                ciphered = null;
+            } finally
+            {
+                if ( ciphered != null )
+                {
+                    ciphered.release();
+                }
+            }
+        }
     }
 
     @Override
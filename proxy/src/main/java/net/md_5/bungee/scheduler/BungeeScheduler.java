@@ -4,14 +4,18 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import gnu.trove.TCollections;
 import gnu.trove.map.TIntObjectMap;
 import gnu.trove.map.hash.TIntObjectHashMap;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import net.md_5.bungee.api.plugin.Plugin;
 import net.md_5.bungee.api.scheduler.ScheduledTask;
 import net.md_5.bungee.api.scheduler.TaskScheduler;
@@ -23,6 +27,11 @@ public class BungeeScheduler implements TaskScheduler
     private final AtomicInteger taskCounter = new AtomicInteger();
     private final TIntObjectMap<BungeeTask> tasks = TCollections.synchronizedMap( new TIntObjectHashMap<BungeeTask>() );
     private final Multimap<Plugin, BungeeTask> tasksByPlugin = Multimaps.synchronizedMultimap( HashMultimap.<Plugin, BungeeTask>create() );
+    // Only hands due tasks to their plugin's executor, so a single thread serves every delayed or repeating task
+    private final ScheduledThreadPoolExecutor timer = createTimer();
+    private final LongAdder dispatches = new LongAdder();
+    private final LongAdder totalLag = new LongAdder();
+    private final AtomicLong maxLag = new AtomicLong();
     //
     private final Unsafe unsafe = new Unsafe()
     {
@@ -93,7 +102,7 @@ public class BungeeScheduler implements TaskScheduler
     {
         Preconditions.checkNotNull( owner, "owner" );
         Preconditions.checkNotNull( task, "task" );
-        BungeeTask prepared = new BungeeTask( this, taskCounter.getAndIncrement(), owner, task, delay, period, unit );
+        final BungeeTask prepared = new BungeeTask( this, taskCounter.getAndIncrement(), owner, task, delay, period, unit );
 
         synchronized ( lock )
         {
@@ -101,10 +110,80 @@ public class BungeeScheduler implements TaskScheduler
             tasksByPlugin.put( owner, prepared );
         }
 
-        owner.getExecutorService().execute( prepared );
+        Runnable dispatch = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                prepared.dispatch();
+            }
+        };
+        if ( prepared.getPeriod() > 0 )
+        {
+            prepared.getFuture().set( timer.scheduleAtFixedRate( dispatch, prepared.getDelay(), prepared.getPeriod(), TimeUnit.MILLISECONDS ) );
+        } else if ( prepared.getDelay() > 0 )
+        {
+            prepared.getFuture().set( timer.schedule( dispatch, prepared.getDelay(), TimeUnit.MILLISECONDS ) );
+        } else
+        {
+            prepared.dispatch();
+        }
+
+        // Cancelled before the timer entry was set
+        if ( !prepared.getRunning().get() && prepared.getFuture().get() != null )
+        {
+            prepared.getFuture().get().cancel( false );
+        }
         return prepared;
     }
 
+    void recordLag(long nanos)
+    {
+        dispatches.increment();
+        totalLag.add( nanos );
+
+        long current;
+        while ( nanos > ( current = maxLag.get() ) )
+        {
+            if ( maxLag.compareAndSet( current, nanos ) )
+            {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Gets the average time tasks have spent waiting for a thread in their
+     * plugin's executor after becoming due, since startup.
+     *
+     * @param unit the unit to return the lag in
+     * @return the average lag, or 0 if no task has run yet
+     */
+    public long getAverageLag(TimeUnit unit)
+    {
+        long count = dispatches.sum();
+        return ( count == 0 ) ? 0 : unit.convert( totalLag.sum() / count, TimeUnit.NANOSECONDS );
+    }
+
+    /**
+     * Gets the longest time a task has spent waiting for a thread in its
+     * plugin's executor after becoming due, since startup.
+     *
+     * @param unit the unit to return the lag in
+     * @return the longest lag
+     */
+    public long getMaxLag(TimeUnit unit)
+    {
+        return unit.convert( maxLag.get(), TimeUnit.NANOSECONDS );
+    }
+
+    private static ScheduledThreadPoolExecutor createTimer()
+    {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor( 1, new ThreadFactoryBuilder().setNameFormat( "BungeeCord Scheduler" ).setDaemon( true ).build() );
+        timer.setRemoveOnCancelPolicy( true );
+        return timer;
+    }
+
     @Override
     public Unsafe unsafe()
     {
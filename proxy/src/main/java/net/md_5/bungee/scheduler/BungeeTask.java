@@ -1,9 +1,16 @@
 package net.md_5.bungee.scheduler;
 
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import net.md_5.bungee.api.ProxyServer;
 import net.md_5.bungee.api.plugin.Plugin;
 import net.md_5.bungee.api.scheduler.ScheduledTask;
@@ -20,6 +27,14 @@ public class BungeeTask implements Runnable, ScheduledTask
     private final long delay;
     private final long period;
     private final AtomicBoolean running = new AtomicBoolean( true );
+    // Timer entry which dispatches this task, or null until scheduled
+    @Getter(AccessLevel.PACKAGE)
+    private final AtomicReference<ScheduledFuture<?>> future = new AtomicReference<>();
+    // Number of dispatches waiting on, or running, this task: 0, 1, or 2 if it became due again while running
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger dispatches = new AtomicInteger();
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong dispatchedAt = new AtomicLong();
 
     public BungeeTask(BungeeScheduler sched, int id, Plugin owner, Runnable task, long delay, long period, TimeUnit unit)
     {
@@ -38,49 +53,73 @@ public class BungeeTask implements Runnable, ScheduledTask
 
         if ( wasRunning )
         {
+            ScheduledFuture<?> scheduled = future.get();
+            if ( scheduled != null )
+            {
+                scheduled.cancel( false );
+            }
             sched.cancel0( this );
         }
     }
 
-    @Override
-    public void run()
+    /**
+     * Hands this task to its owner's executor, as it is now due. If the
+     * previous run has not finished yet, it is run once more straight after,
+     * rather than twice at the same time. If the executor will not take it,
+     * for example because it has been shut down, the task is cancelled.
+     */
+    void dispatch()
     {
-        if ( delay > 0 )
+        int current;
+        do
         {
-            try
-            {
-                Thread.sleep( delay );
-            } catch ( InterruptedException ex )
+            current = dispatches.get();
+            if ( current >= 2 )
             {
-                Thread.currentThread().interrupt();
+                return;
             }
-        }
+        } while ( !dispatches.compareAndSet( current, current + 1 ) );
 
-        while ( running.get() )
+        if ( current == 0 )
         {
+            dispatchedAt.set( System.nanoTime() );
             try
             {
-                task.run();
-            } catch ( Throwable t )
+                sched.unsafe().getExecutorService( owner ).execute( this );
+            } catch ( RejectedExecutionException ex )
             {
-                ProxyServer.getInstance().getLogger().log( Level.SEVERE, String.format( "Task %s encountered an exception", this ), t );
+                // Thrown on the timer thread, where it would silently stop the task from ever running again
+                cancel();
+                ProxyServer.getInstance().getLogger().log( Level.SEVERE, String.format( "Task %s could not be run and has been cancelled", this ), ex );
             }
+        }
+    }
 
-            // If we have a period of 0 or less, only run once
-            if ( period <= 0 )
+    @Override
+    public void run()
+    {
+        sched.recordLag( System.nanoTime() - dispatchedAt.get() );
+
+        do
+        {
+            if ( !running.get() )
             {
-                break;
+                return;
             }
 
             try
             {
-                Thread.sleep( period );
-            } catch ( InterruptedException ex )
+                task.run();
+            } catch ( Throwable t )
             {
-                Thread.currentThread().interrupt();
+                ProxyServer.getInstance().getLogger().log( Level.SEVERE, String.format( "Task %s encountered an exception", this ), t );
             }
-        }
+        } while ( dispatches.decrementAndGet() > 0 );
 
-        cancel();
+        // If we have a period of 0 or less, only run once
+        if ( period <= 0 )
+        {
+            cancel();
+        }
     }
 }
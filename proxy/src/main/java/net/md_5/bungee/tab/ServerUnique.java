@@ -3,7 +3,9 @@ package net.md_5.bungee.tab;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.UUID;
+import net.md_5.bungee.UserConnection;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
+import net.md_5.bungee.protocol.PacketWrapper;
 import net.md_5.bungee.protocol.packet.PlayerListItem;
 
 public class ServerUnique extends TabList
@@ -17,19 +19,16 @@ public class ServerUnique extends TabList
     }
 
     @Override
-    public void onUpdate(PlayerListItem playerListItem)
+    public void onUpdate(PlayerListItem.Action action, Collection<UUID> uuids, PacketWrapper packet)
     {
-        for ( PlayerListItem.Item item : playerListItem.getItems() )
+        if ( action == PlayerListItem.Action.ADD_PLAYER )
         {
-            if ( playerListItem.getAction() == PlayerListItem.Action.ADD_PLAYER )
-            {
-                uuids.add( item.getUuid() );
-            } else if ( playerListItem.getAction() == PlayerListItem.Action.REMOVE_PLAYER )
-            {
-                uuids.remove( item.getUuid() );
-            }
+            this.uuids.addAll( uuids );
+        } else if ( action == PlayerListItem.Action.REMOVE_PLAYER )
+        {
+            this.uuids.removeAll( uuids );
         }
-        player.unsafe().sendPacket( playerListItem );
+        ( (UserConnection) player ).getCh().writeBuffered( packet );
     }
 
     @Override
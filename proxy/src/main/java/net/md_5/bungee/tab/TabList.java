@@ -1,19 +1,43 @@
 package net.md_5.bungee.tab;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
+import io.netty.buffer.ByteBuf;
+import java.util.Collection;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import net.md_5.bungee.BungeeCord;
 import net.md_5.bungee.UserConnection;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
 import net.md_5.bungee.connection.LoginResult;
+import net.md_5.bungee.protocol.DefinedPacket;
+import net.md_5.bungee.protocol.PacketWrapper;
 import net.md_5.bungee.protocol.packet.PlayerListItem;
 
 @RequiredArgsConstructor
 public abstract class TabList
 {
 
+    private static final Function<UUID, UserConnection> OFFLINE_PLAYERS = new Function<UUID, UserConnection>()
+    {
+        @Override
+        public UserConnection apply(UUID input)
+        {
+            return BungeeCord.getInstance().getPlayerByOfflineUUID( input );
+        }
+    };
+    //
     protected final ProxiedPlayer player;
 
-    public abstract void onUpdate(PlayerListItem playerListItem);
+    /**
+     * Called with every Player List Item packet sent by the server, after it
+     * has been rewritten.
+     *
+     * @param action the action of the packet
+     * @param uuids the UUIDs of the packet entries
+     * @param packet the encoded packet, which this tab list may send on
+     */
+    public abstract void onUpdate(PlayerListItem.Action action, Collection<UUID> uuids, PacketWrapper packet);
 
     public abstract void onPingChange(int ping);
 
@@ -23,46 +47,130 @@ public abstract class TabList
 
     public abstract void onDisconnect();
 
-    public static PlayerListItem rewrite(PlayerListItem playerListItem)
+    /**
+     * Rewrites the entries of proxied players in a Player List Item packet to
+     * their online mode UUIDs and properties. Only the fields needed for this
+     * are decoded, everything else is copied across as is.
+     *
+     * @param in the packet, positioned after its id
+     * @param out the buffer to write the rewritten packet to
+     * @param uuids collects the rewritten UUID of every entry
+     * @return the action of the packet
+     */
+    public static PlayerListItem.Action rewrite(ByteBuf in, ByteBuf out, Collection<UUID> uuids)
+    {
+        return rewrite( in, out, uuids, OFFLINE_PLAYERS );
+    }
+
+    @VisibleForTesting
+    static PlayerListItem.Action rewrite(ByteBuf in, ByteBuf out, Collection<UUID> uuids, Function<UUID, UserConnection> players)
     {
-        for ( PlayerListItem.Item item : playerListItem.getItems() )
+        int start = in.readerIndex();
+        PlayerListItem.Action action = PlayerListItem.Action.values()[DefinedPacket.readVarInt( in )];
+        int count = DefinedPacket.readVarInt( in );
+        out.writeBytes( in, start, in.readerIndex() - start );
+
+        for ( int i = 0; i < count; i++ )
         {
-            if ( item.getUuid() == null ) // Old style ping
+            UUID uuid = DefinedPacket.readUUID( in );
+            UserConnection player = players.apply( uuid );
+            if ( player != null )
             {
-                continue;
+                uuid = player.getUniqueId();
             }
-            UserConnection player = BungeeCord.getInstance().getPlayerByOfflineUUID( item.getUuid() );
-            if ( player != null )
+            DefinedPacket.writeUUID( uuid, out );
+            uuids.add( uuid );
+
+            start = in.readerIndex();
+            switch ( action )
             {
-                item.setUuid( player.getUniqueId() );
-                LoginResult loginResult = player.getPendingConnection().getLoginProfile();
-                if ( loginResult != null && loginResult.getProperties() != null )
-                {
-                    String[][] props = new String[ loginResult.getProperties().length ][];
-                    for ( int i = 0; i < props.length; i++ )
+                case ADD_PLAYER:
+                    skipString( in ); // username
+                    out.writeBytes( in, start, in.readerIndex() - start );
+
+                    start = in.readerIndex();
+                    int properties = DefinedPacket.readVarInt( in );
+                    for ( int j = 0; j < properties; j++ )
                     {
-                        props[i] = new String[]
+                        skipString( in ); // name
+                        skipString( in ); // value
+                        if ( in.readBoolean() )
                         {
-                            loginResult.getProperties()[i].getName(),
-                            loginResult.getProperties()[i].getValue(),
-                            loginResult.getProperties()[i].getSignature()
-                        };
+                            skipString( in ); // signature
+                        }
                     }
-                    item.setProperties( props );
-                } else
-                {
-                    item.setProperties( new String[ 0 ][ 0 ] );
-                }
-                if ( playerListItem.getAction() == PlayerListItem.Action.ADD_PLAYER || playerListItem.getAction() == PlayerListItem.Action.UPDATE_GAMEMODE )
-                {
-                    player.setGamemode( item.getGamemode() );
-                }
-                if ( playerListItem.getAction() == PlayerListItem.Action.ADD_PLAYER || playerListItem.getAction() == PlayerListItem.Action.UPDATE_LATENCY )
+                    if ( player != null )
+                    {
+                        writeProperties( player, out );
+                    } else
+                    {
+                        out.writeBytes( in, start, in.readerIndex() - start );
+                    }
+
+                    start = in.readerIndex();
+                    int gamemode = DefinedPacket.readVarInt( in );
+                    int ping = DefinedPacket.readVarInt( in );
+                    if ( in.readBoolean() )
+                    {
+                        skipString( in ); // display name
+                    }
+                    if ( player != null )
+                    {
+                        player.setGamemode( gamemode );
+                        player.setPing( ping );
+                    }
+                    break;
+                case UPDATE_GAMEMODE:
+                    gamemode = DefinedPacket.readVarInt( in );
+                    if ( player != null )
+                    {
+                        player.setGamemode( gamemode );
+                    }
+                    break;
+                case UPDATE_LATENCY:
+                    ping = DefinedPacket.readVarInt( in );
+                    if ( player != null )
+                    {
+                        player.setPing( ping );
+                    }
+                    break;
+                case UPDATE_DISPLAY_NAME:
+                    if ( in.readBoolean() )
+                    {
+                        skipString( in );
+                    }
+                    break;
+            }
+            out.writeBytes( in, start, in.readerIndex() - start );
+        }
+
+        return action;
+    }
+
+    private static void writeProperties(UserConnection player, ByteBuf out)
+    {
+        LoginResult loginResult = player.getPendingConnection().getLoginProfile();
+        if ( loginResult != null && loginResult.getProperties() != null )
+        {
+            DefinedPacket.writeVarInt( loginResult.getProperties().length, out );
+            for ( LoginResult.Property property : loginResult.getProperties() )
+            {
+                DefinedPacket.writeString( property.getName(), out );
+                DefinedPacket.writeString( property.getValue(), out );
+                out.writeBoolean( property.getSignature() != null );
+                if ( property.getSignature() != null )
                 {
-                    player.setPing( item.getPing() );
+                    DefinedPacket.writeString( property.getSignature(), out );
                 }
             }
+        } else
+        {
+            DefinedPacket.writeVarInt( 0, out );
         }
-        return playerListItem;
+    }
+
+    private static void skipString(ByteBuf buf)
+    {
+        buf.skipBytes( DefinedPacket.readVarInt( buf ) );
     }
 }
@@ -0,0 +1,85 @@
+package net.md_5.bungee.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Indexes connected players by name, UUID and offline mode UUID. Lookups and
+ * iteration never block, even while players are being added or removed.
+ *
+ * @param <T> the player type
+ */
+public class PlayerRegistry<T>
+{
+
+    // Keys are lower cased, names are matched case insensitively
+    private final ConcurrentMap<String, T> byName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, T> byUUID = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, T> byOfflineUUID = new ConcurrentHashMap<>();
+    private final Collection<T> players = Collections.unmodifiableCollection( byName.values() );
+
+    public void add(String name, UUID uuid, UUID offlineUUID, T player)
+    {
+        byName.put( name.toLowerCase( Locale.ROOT ), player );
+        byUUID.put( uuid, player );
+        byOfflineUUID.put( offlineUUID, player );
+    }
+
+    /**
+     * Removes a player, unless their name has since been taken by another
+     * player.
+     *
+     * @param name the player name
+     * @param uuid the player UUID
+     * @param offlineUUID the player offline mode UUID
+     * @param player the player to remove
+     * @return whether the player was removed
+     */
+    public boolean remove(String name, UUID uuid, UUID offlineUUID, T player)
+    {
+        if ( !byName.remove( name.toLowerCase( Locale.ROOT ), player ) )
+        {
+            return false;
+        }
+        byUUID.remove( uuid, player );
+        byOfflineUUID.remove( offlineUUID, player );
+
+        return true;
+    }
+
+    public T get(String name)
+    {
+        return byName.get( name.toLowerCase( Locale.ROOT ) );
+    }
+
+    public T get(UUID uuid)
+    {
+        return byUUID.get( uuid );
+    }
+
+    public T getByOfflineUUID(UUID offlineUUID)
+    {
+        return byOfflineUUID.get( offlineUUID );
+    }
+
+    /**
+     * Gets a read only view of all players. It is not a copy, so it reflects
+     * later changes, and iterating it never throws a
+     * {@link java.util.ConcurrentModificationException}.
+     *
+     * @return all players
+     */
+    public Collection<T> getPlayers()
+    {
+        return players;
+    }
+
+    public int size()
+    {
+        return byName.size();
+    }
+}
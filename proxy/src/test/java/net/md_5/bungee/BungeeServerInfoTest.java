@@ -0,0 +1,97 @@
+package net.md_5.bungee;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.util.Collection;
+import java.util.HashSet;
+import net.md_5.bungee.api.connection.ProxiedPlayer;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class BungeeServerInfoTest
+{
+
+    private static final int BENCHMARK_COUNT = 1 << 14;
+
+    @Test
+    public void testPlayers()
+    {
+        BungeeServerInfo info = createServer();
+        ProxiedPlayer first = createPlayer();
+        ProxiedPlayer second = createPlayer();
+
+        info.addPlayer( first );
+        info.addPlayer( first );
+        Assert.assertEquals( 1, info.getPlayerCount() );
+
+        Collection<ProxiedPlayer> snapshot = info.getPlayers();
+        Assert.assertSame( snapshot, info.getPlayers() );
+
+        info.addPlayer( second );
+        Assert.assertEquals( 2, info.getPlayerCount() );
+        Assert.assertEquals( 1, snapshot.size() );
+        Assert.assertEquals( 2, info.getPlayers().size() );
+
+        info.removePlayer( first );
+        info.removePlayer( first );
+        Assert.assertEquals( 1, info.getPlayerCount() );
+        Assert.assertTrue( info.getPlayers().contains( second ) );
+        Assert.assertFalse( info.getPlayers().contains( first ) );
+    }
+
+    @Test
+    @Ignore("Benchmark")
+    public void testBenchmark()
+    {
+        BungeeServerInfo info = createServer();
+        for ( int i = 0; i < 500; i++ )
+        {
+            info.addPlayer( createPlayer() );
+        }
+
+        long start = System.currentTimeMillis();
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            new HashSet<>( info.getPlayers() ).size();
+        }
+        System.out.println( String.format( "Copy Iteration: %d, Elapsed: %d ms", BENCHMARK_COUNT, System.currentTimeMillis() - start ) );
+
+        start = System.currentTimeMillis();
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            info.getPlayers().size();
+        }
+        System.out.println( String.format( "Snapshot Iteration: %d, Elapsed: %d ms", BENCHMARK_COUNT, System.currentTimeMillis() - start ) );
+    }
+
+    private static BungeeServerInfo createServer()
+    {
+        return new BungeeServerInfo( "lobby", new InetSocketAddress( "localhost", 25565 ), "", false );
+    }
+
+    private static ProxiedPlayer createPlayer()
+    {
+        return (ProxiedPlayer) Proxy.newProxyInstance( ProxiedPlayer.class.getClassLoader(), new Class<?>[]
+        {
+            ProxiedPlayer.class
+        }, new InvocationHandler()
+        {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+            {
+                switch ( method.getName() )
+                {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode( proxy );
+                    default:
+                        return null;
+                }
+            }
+        } );
+    }
+}
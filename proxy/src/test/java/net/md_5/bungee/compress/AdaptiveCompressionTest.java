@@ -0,0 +1,92 @@
+package net.md_5.bungee.compress;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.md_5.bungee.protocol.DefinedPacket;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AdaptiveCompressionTest
+{
+
+    private static final int RANDOM_PACKET = 0x22;
+    private static final int ZERO_PACKET = 0x23;
+
+    @Test
+    public void testIncompressible()
+    {
+        PacketCompressor compressor = new PacketCompressor();
+        compressor.setAdaptive( new AdaptiveCompression() );
+        EmbeddedChannel channel = new EmbeddedChannel( compressor, new PacketDecompressor() );
+
+        // The first one has to be compressed to find out it's not worth it
+        Assert.assertTrue( send( channel, createPacket( RANDOM_PACKET, 1000, true ) ) );
+        Assert.assertFalse( send( channel, createPacket( RANDOM_PACKET, 1000, true ) ) );
+        Assert.assertTrue( send( channel, createPacket( ZERO_PACKET, 1000, false ) ) );
+        Assert.assertTrue( send( channel, createPacket( ZERO_PACKET, 1000, false ) ) );
+
+        // But it is tried again every now and then
+        boolean probed = false;
+        for ( int i = 0; i < 64; i++ )
+        {
+            probed |= send( channel, createPacket( RANDOM_PACKET, 1000, true ) );
+        }
+        Assert.assertTrue( probed );
+
+        Assert.assertFalse( channel.finish() );
+    }
+
+    @Test
+    public void testLevel()
+    {
+        AdaptiveCompression adaptive = new AdaptiveCompression();
+        long now = System.nanoTime();
+        int level = adaptive.getLevel();
+
+        // Lots of time spent compressing in the last second
+        now += TimeUnit.SECONDS.toNanos( 1 );
+        adaptive.update( now, TimeUnit.MILLISECONDS.toNanos( 50 ) );
+        Assert.assertEquals( level - 1, adaptive.getLevel() );
+
+        for ( int i = 0; i < 10; i++ )
+        {
+            now += TimeUnit.SECONDS.toNanos( 1 );
+            adaptive.update( now, TimeUnit.MILLISECONDS.toNanos( 50 ) );
+        }
+        Assert.assertEquals( 1, adaptive.getLevel() );
+    }
+
+    // Returns whether the packet was compressed, after checking it decompresses correctly
+    private static boolean send(EmbeddedChannel channel, ByteBuf packet)
+    {
+        channel.writeOutbound( packet.retainedDuplicate() );
+        ByteBuf compressed = channel.readOutbound();
+        boolean wasCompressed = DefinedPacket.readVarInt( compressed.duplicate() ) != 0;
+
+        channel.writeInbound( compressed );
+        ByteBuf decompressed = channel.readInbound();
+        Assert.assertEquals( packet, decompressed );
+
+        decompressed.release();
+        packet.release();
+        return wasCompressed;
+    }
+
+    private static ByteBuf createPacket(int id, int size, boolean random)
+    {
+        ByteBuf buf = Unpooled.directBuffer();
+        DefinedPacket.writeVarInt( id, buf );
+
+        byte[] data = new byte[ size ];
+        if ( random )
+        {
+            new Random().nextBytes( data );
+        }
+        buf.writeBytes( data );
+
+        return buf;
+    }
+}
@@ -0,0 +1,148 @@
+package net.md_5.bungee.compress;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import net.md_5.bungee.jni.zlib.BungeeZlib;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class CompressFactoryTest
+{
+
+    private static final int CHANNEL_COUNT = 256;
+    private static final int BENCHMARK_COUNT = 1 << 6;
+
+    @Test
+    public void testPerThread() throws Exception
+    {
+        Assert.assertSame( CompressFactory.getDeflater(), CompressFactory.getDeflater() );
+        Assert.assertNotSame( CompressFactory.getDeflater(), CompressFactory.getInflater() );
+
+        final AtomicReference<BungeeZlib> other = new AtomicReference<>();
+        Thread thread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                other.set( CompressFactory.getDeflater() );
+            }
+        };
+        thread.start();
+        thread.join();
+
+        Assert.assertNotNull( other.get() );
+        Assert.assertNotSame( CompressFactory.getDeflater(), other.get() );
+    }
+
+    @Test
+    public void testSharedChannels()
+    {
+        EmbeddedChannel first = new EmbeddedChannel( new PacketCompressor(), new PacketDecompressor() );
+        EmbeddedChannel second = new EmbeddedChannel( new PacketCompressor(), new PacketDecompressor() );
+
+        // Interleave the channels, each packet must still be compressed on its own
+        for ( int i = 0; i < 16; i++ )
+        {
+            roundTrip( ( i % 2 == 0 ) ? first : second, createPacket( i * 100 ) );
+        }
+
+        Assert.assertFalse( first.finish() );
+        Assert.assertFalse( second.finish() );
+    }
+
+    @Test
+    public void testResetOnFailure() throws Exception
+    {
+        ByteBuf garbage = Unpooled.directBuffer();
+        garbage.writeBytes( "not compressed at all".getBytes( StandardCharsets.UTF_8 ) );
+        ByteBuf out = Unpooled.directBuffer();
+        try
+        {
+            CompressFactory.getInflater().process( garbage, out );
+            Assert.fail( "Decompressed garbage" );
+        } catch ( Exception ex )
+        {
+            // Expected
+        }
+        garbage.release();
+        out.release();
+
+        // The next connection to use this thread's decompressor must not be affected
+        roundTrip( new EmbeddedChannel( new PacketCompressor(), new PacketDecompressor() ), createPacket( 1000 ) );
+    }
+
+    @Test
+    @Ignore("Benchmark")
+    public void testBenchmark() throws DataFormatException
+    {
+        ByteBuf packet = createPacket( 1000 );
+        ByteBuf out = Unpooled.directBuffer();
+
+        BungeeZlib[] channels = new BungeeZlib[ CHANNEL_COUNT ];
+        for ( int i = 0; i < channels.length; i++ )
+        {
+            channels[i] = CompressFactory.newInstance();
+            channels[i].init( true, Deflater.DEFAULT_COMPRESSION );
+        }
+
+        long start = System.currentTimeMillis();
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            for ( BungeeZlib zlib : channels )
+            {
+                zlib.process( packet.duplicate(), out.clear() );
+            }
+        }
+        System.out.println( String.format( "Per Channel Packets: %d, Elapsed: %d ms", BENCHMARK_COUNT * CHANNEL_COUNT, System.currentTimeMillis() - start ) );
+
+        for ( BungeeZlib zlib : channels )
+        {
+            zlib.free();
+        }
+
+        start = System.currentTimeMillis();
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            for ( int j = 0; j < CHANNEL_COUNT; j++ )
+            {
+                CompressFactory.getDeflater().process( packet.duplicate(), out.clear() );
+            }
+        }
+        System.out.println( String.format( "Pooled Packets: %d, Elapsed: %d ms", BENCHMARK_COUNT * CHANNEL_COUNT, System.currentTimeMillis() - start ) );
+
+        packet.release();
+        out.release();
+    }
+
+    private static void roundTrip(EmbeddedChannel channel, ByteBuf packet)
+    {
+        channel.writeOutbound( packet.retainedDuplicate() );
+        channel.writeInbound( (Object) channel.readOutbound() );
+
+        ByteBuf decompressed = channel.readInbound();
+        Assert.assertEquals( packet, decompressed );
+
+        decompressed.release();
+        packet.release();
+    }
+
+    private static ByteBuf createPacket(int size)
+    {
+        byte[] data = new byte[ size ];
+        new Random( size ).nextBytes( data );
+
+        // Half random, half repeated, so it compresses somewhat like real data
+        ByteBuf buf = Unpooled.directBuffer();
+        buf.writeBytes( data, 0, size / 2 );
+        buf.writeZero( size - size / 2 );
+
+        return buf;
+    }
+}
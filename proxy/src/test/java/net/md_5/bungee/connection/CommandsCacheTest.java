@@ -0,0 +1,101 @@
+package net.md_5.bungee.connection;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.builder.RequiredArgumentBuilder;
+import com.mojang.brigadier.tree.ArgumentCommandNode;
+import com.mojang.brigadier.tree.RootCommandNode;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.Arrays;
+import java.util.List;
+import net.md_5.bungee.protocol.DefinedPacket;
+import net.md_5.bungee.protocol.Protocol;
+import net.md_5.bungee.protocol.ProtocolConstants;
+import net.md_5.bungee.protocol.packet.Commands;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CommandsCacheTest
+{
+
+    private static final List<String> COMMANDS = Arrays.asList( "server", "glist" );
+
+    @Test
+    public void testCache()
+    {
+        CommandsCache cache = new CommandsCache();
+        ByteBuf tree = Unpooled.wrappedBuffer( new byte[]
+        {
+            0x12, 1, 0, 0
+        } );
+        byte[] encoded = new byte[]
+        {
+            0x12, 2
+        };
+
+        Assert.assertNull( cache.get( "lobby", ProtocolConstants.MINECRAFT_1_15, tree, COMMANDS ) );
+        cache.put( "lobby", ProtocolConstants.MINECRAFT_1_15, tree, COMMANDS, encoded );
+        tree.release();
+
+        // Equal bytes from a different buffer hit the stored entry
+        ByteBuf direct = Unpooled.directBuffer();
+        direct.writeBytes( new byte[]
+        {
+            0x12, 1, 0, 0
+        } );
+        Assert.assertSame( encoded, cache.get( "lobby", ProtocolConstants.MINECRAFT_1_15, direct, Arrays.asList( "server", "glist" ) ) );
+
+        Assert.assertNull( cache.get( "lobby", ProtocolConstants.MINECRAFT_1_15, direct, Arrays.asList( "server" ) ) );
+        Assert.assertNull( cache.get( "pvp", ProtocolConstants.MINECRAFT_1_15, direct, COMMANDS ) );
+        Assert.assertNull( cache.get( "lobby", ProtocolConstants.MINECRAFT_1_14_4, direct, COMMANDS ) );
+
+        direct.setByte( 3, 1 );
+        Assert.assertNull( cache.get( "lobby", ProtocolConstants.MINECRAFT_1_15, direct, COMMANDS ) );
+        direct.release();
+    }
+
+    @Test
+    public void testEncode()
+    {
+        int version = ProtocolConstants.MINECRAFT_1_15;
+        int packetId = Protocol.GAME.getPacketId( ProtocolConstants.Direction.TO_CLIENT, Commands.class, version );
+        RootCommandNode root = new RootCommandNode();
+        root.addChild( LiteralArgumentBuilder.literal( "tp" )
+                .then( RequiredArgumentBuilder.argument( "target", StringArgumentType.word() ) )
+                .build() );
+        root.addChild( LiteralArgumentBuilder.literal( "server" )
+                .then( RequiredArgumentBuilder.argument( "name", StringArgumentType.word() ) )
+                .build() );
+        ByteBuf tree = Unpooled.buffer();
+        DefinedPacket.writeVarInt( packetId, tree );
+        new Commands( root ).write( tree, ProtocolConstants.Direction.TO_CLIENT, version );
+
+        CommandsCache cache = new CommandsCache();
+        byte[] encoded = cache.encode( "lobby", version, packetId, tree, COMMANDS );
+        Assert.assertEquals( 0, tree.readerIndex() );
+
+        ByteBuf buf = Unpooled.wrappedBuffer( encoded );
+        Assert.assertEquals( packetId, DefinedPacket.readVarInt( buf ) );
+        Commands commands = new Commands();
+        commands.read( buf, ProtocolConstants.Direction.TO_CLIENT, version );
+        Assert.assertFalse( buf.isReadable() );
+
+        // The server's own commands are kept, including one the proxy also has
+        RootCommandNode result = commands.getRoot();
+        Assert.assertEquals( 3, result.getChildren().size() );
+        Assert.assertNotNull( result.getChild( "tp" ).getChild( "target" ) );
+        Assert.assertNotNull( result.getChild( "server" ).getChild( "name" ) );
+        Assert.assertNull( result.getChild( "server" ).getChild( "args" ) );
+
+        // Proxy commands are added, and ask the server for suggestions
+        ArgumentCommandNode args = (ArgumentCommandNode) result.getChild( "glist" ).getChild( "args" );
+        Assert.assertEquals( StringArgumentType.StringType.GREEDY_PHRASE, ( (StringArgumentType) args.getType() ).getType() );
+        Assert.assertSame( Commands.SuggestionRegistry.ASK_SERVER, args.getCustomSuggestions() );
+
+        // The same tree and commands are only encoded once
+        Assert.assertSame( encoded, cache.encode( "lobby", version, packetId, tree.copy(), COMMANDS ) );
+        Assert.assertNotSame( encoded, cache.encode( "lobby", version, packetId, tree, Arrays.asList( "glist" ) ) );
+        tree.release();
+    }
+}
@@ -0,0 +1,442 @@
+package net.md_5.bungee.entitymap;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import java.util.ArrayList;
+import java.util.List;
+import net.md_5.bungee.protocol.DefinedPacket;
+import net.md_5.bungee.protocol.ProtocolConstants;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class EntityMapTest
+{
+
+    private static final int BENCHMARK_COUNT = 1 << 20;
+    private static final int ENTITY_VELOCITY = 0x46;
+    private static final int SET_PASSENGERS = 0x4B;
+    private static final int ENTITY_METADATA_1_14 = 0x43;
+    // Destroy Entities packet id for each entity map
+    private static final int[][] DESTROY_ENTITIES = new int[][]
+    {
+        {
+            ProtocolConstants.MINECRAFT_1_8, 0x13
+        },
+        {
+            ProtocolConstants.MINECRAFT_1_9, 0x30
+        },
+        {
+            ProtocolConstants.MINECRAFT_1_9_4, 0x30
+        },
+        {
+            ProtocolConstants.MINECRAFT_1_10, 0x30
+        },
+        {
+            ProtocolConstants.MINECRAFT_1_11, 0x30
+        },
+        {
+            ProtocolConstants.MINECRAFT_1_12, 0x31
+        },
+        {
+            ProtocolConstants.MINECRAFT_1_12_1, 0x32
+        },
+        {
+            ProtocolConstants.MINECRAFT_1_13, 0x35
+        },
+        {
+            ProtocolConstants.MINECRAFT_1_14, 0x37
+        },
+        {
+            ProtocolConstants.MINECRAFT_1_15, 0x38
+        }
+    };
+
+    @Test
+    public void testInPlace()
+    {
+        Assert.assertTrue( EntityMap.canRewriteInPlace( 1000, 2000 ) );
+        Assert.assertFalse( EntityMap.canRewriteInPlace( 100, 200 ) );
+        Assert.assertFalse( EntityMap.canRewriteInPlace( 126, 127 ) );
+        Assert.assertFalse( EntityMap.canRewriteInPlace( 0, 5 ) );
+    }
+
+    @Test
+    public void testRewriteSlice()
+    {
+        EntityMap map = EntityMap.getEntityMap( ProtocolConstants.MINECRAFT_1_15 );
+        ByteBuf frame = createVelocity( 1000 );
+
+        // Decoded packets cannot grow, so make sure the rewrite fits in the original bounds
+        ByteBuf slice = frame.slice();
+        map.rewriteClientbound( slice, 1000, 2000, ProtocolConstants.MINECRAFT_1_15 );
+
+        Assert.assertEquals( 0, slice.readerIndex() );
+        Assert.assertEquals( frame.readableBytes(), slice.readableBytes() );
+        Assert.assertEquals( ENTITY_VELOCITY, DefinedPacket.readVarInt( slice ) );
+        Assert.assertEquals( 2000, DefinedPacket.readVarInt( slice ) );
+        Assert.assertEquals( 6, slice.readableBytes() );
+
+        frame.release();
+    }
+
+    @Test
+    public void testRewriteGrow()
+    {
+        EntityMap map = EntityMap.getEntityMap( ProtocolConstants.MINECRAFT_1_15 );
+        ByteBuf frame = createVelocity( 100 );
+        ByteBuf copy = frame.copy();
+
+        map.rewriteClientbound( copy, 100, 200, ProtocolConstants.MINECRAFT_1_15 );
+
+        Assert.assertEquals( ENTITY_VELOCITY, DefinedPacket.readVarInt( copy ) );
+        Assert.assertEquals( 200, DefinedPacket.readVarInt( copy ) );
+        Assert.assertEquals( 6, copy.readableBytes() );
+
+        copy.release();
+        frame.release();
+    }
+
+    @Test
+    public void testNoop()
+    {
+        ByteBuf frame = createVelocity( 100 );
+        ByteBuf copy = frame.copy();
+
+        EntityMap.NOOP.rewriteClientbound( copy, 100, 200, ProtocolConstants.MINECRAFT_1_15 );
+        EntityMap.NOOP.rewriteServerbound( copy, 100, 200, ProtocolConstants.MINECRAFT_1_15 );
+        Assert.assertEquals( frame, copy );
+
+        copy.release();
+        frame.release();
+    }
+
+    @Test
+    public void testDestroyEntities()
+    {
+        for ( int[] destroy : DESTROY_ENTITIES )
+        {
+            EntityMap map = EntityMap.getEntityMap( destroy[0] );
+            ByteBuf packet = createVarIntPacket( destroy[1], 3, 100, 5, 200 );
+            packet.writeByte( 42 );
+
+            map.rewriteClientbound( packet, 100, 200, destroy[0] );
+
+            Assert.assertEquals( destroy[1], DefinedPacket.readVarInt( packet ) );
+            Assert.assertEquals( 3, DefinedPacket.readVarInt( packet ) );
+            Assert.assertEquals( 200, DefinedPacket.readVarInt( packet ) );
+            Assert.assertEquals( 5, DefinedPacket.readVarInt( packet ) );
+            Assert.assertEquals( 100, DefinedPacket.readVarInt( packet ) );
+            Assert.assertEquals( 42, packet.readByte() );
+            Assert.assertFalse( packet.isReadable() );
+
+            packet.release();
+        }
+    }
+
+    @Test
+    public void testRewriteTables()
+    {
+        ByteBufAllocator[] allocators = new ByteBufAllocator[]
+        {
+            UnpooledByteBufAllocator.DEFAULT, PooledByteBufAllocator.DEFAULT
+        };
+        for ( EntityMap map : getEntityMaps() )
+        {
+            for ( ProtocolConstants.Direction direction : ProtocolConstants.Direction.values() )
+            {
+                EntityMap.Rewrite[] rewrites = map.getRewrites( direction );
+                for ( int id = 0; id < rewrites.length; id++ )
+                {
+                    if ( rewrites[id] == null )
+                    {
+                        continue;
+                    }
+                    for ( ByteBufAllocator alloc : allocators )
+                    {
+                        for ( boolean direct : new boolean[]
+                        {
+                            false, true
+                        } )
+                        {
+                            String message = map.getClass().getSimpleName() + " " + direction + " 0x" + Integer.toHexString( id ) + " " + rewrites[id];
+
+                            // Both ids swapped, the first grows and the second shrinks
+                            ByteBuf packet = createSample( alloc, direct, id, rewrites[id], 100, 200, 100 );
+                            ByteBuf expected = createSample( alloc, direct, id, rewrites[id], 200, 100, 100 );
+                            EntityMap.rewrite( packet, 100, 200, rewrites );
+                            Assert.assertEquals( message, expected, packet );
+                            packet.release();
+                            expected.release();
+
+                            // Only the first id is rewritten and shrinks
+                            packet = createSample( alloc, direct, id, rewrites[id], 200, 5, 200 );
+                            expected = createSample( alloc, direct, id, rewrites[id], 100, 5, 200 );
+                            EntityMap.rewrite( packet, 200, 100, rewrites );
+                            Assert.assertEquals( message, expected, packet );
+                            packet.release();
+                            expected.release();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSetPassengers()
+    {
+        EntityMap map = EntityMap.getEntityMap( ProtocolConstants.MINECRAFT_1_15 );
+        ByteBuf packet = createVarIntPacket( SET_PASSENGERS, 100, 2, 300, 200 );
+
+        map.rewriteClientbound( packet, 100, 200, ProtocolConstants.MINECRAFT_1_15 );
+
+        Assert.assertEquals( SET_PASSENGERS, DefinedPacket.readVarInt( packet ) );
+        Assert.assertEquals( 200, DefinedPacket.readVarInt( packet ) );
+        Assert.assertEquals( 2, DefinedPacket.readVarInt( packet ) );
+        Assert.assertEquals( 300, DefinedPacket.readVarInt( packet ) );
+        Assert.assertEquals( 100, DefinedPacket.readVarInt( packet ) );
+        Assert.assertFalse( packet.isReadable() );
+
+        packet.release();
+    }
+
+    @Test
+    public void testMetadata()
+    {
+        EntityMap map = EntityMap.getEntityMap( ProtocolConstants.MINECRAFT_1_14 );
+        ByteBuf packet = createMetadata( 101, 101 );
+        ByteBuf expected = createMetadata( 201, 201 );
+
+        map.rewriteClientbound( packet, 100, 200, ProtocolConstants.MINECRAFT_1_14 );
+        Assert.assertEquals( expected, packet );
+
+        packet.release();
+        expected.release();
+    }
+
+    @Test
+    @Ignore("Benchmark")
+    public void testBenchmark()
+    {
+        EntityMap map = EntityMap.getEntityMap( ProtocolConstants.MINECRAFT_1_15 );
+        ByteBuf frame = createVelocity( 1000 );
+
+        long start = System.currentTimeMillis();
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            ByteBuf packet = frame.copy();
+            map.rewriteClientbound( packet, 1000, 2000, ProtocolConstants.MINECRAFT_1_15 );
+            packet.release();
+        }
+        System.out.println( String.format( "Copy Iteration: %d, Elapsed: %d ms", BENCHMARK_COUNT, System.currentTimeMillis() - start ) );
+
+        start = System.currentTimeMillis();
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            ByteBuf packet = frame.retainedSlice();
+            map.rewriteClientbound( packet, 1000, 2000, ProtocolConstants.MINECRAFT_1_15 );
+            packet.release();
+        }
+        System.out.println( String.format( "Slice Iteration: %d, Elapsed: %d ms", BENCHMARK_COUNT, System.currentTimeMillis() - start ) );
+
+        frame.release();
+
+        for ( int version : ProtocolConstants.SUPPORTED_VERSION_IDS )
+        {
+            map = EntityMap.getEntityMap( version );
+            EntityMap.Rewrite[] rewrites = map.getRewrites( ProtocolConstants.Direction.TO_CLIENT );
+            List<ByteBuf> frames = new ArrayList<>();
+            for ( int id = 0; id < rewrites.length; id++ )
+            {
+                if ( rewrites[id] != null )
+                {
+                    frames.add( createSample( UnpooledByteBufAllocator.DEFAULT, true, id, rewrites[id], 1000, 1234, 5678 ) );
+                }
+            }
+            int count = BENCHMARK_COUNT / frames.size();
+
+            start = System.currentTimeMillis();
+            for ( int i = 0; i < count; i++ )
+            {
+                for ( ByteBuf sample : frames )
+                {
+                    ByteBuf packet = sample.retainedSlice();
+                    EntityMap.rewrite( packet, 1000, 2000, rewrites );
+                    packet.release();
+                }
+            }
+            System.out.println( String.format( "Rewrite Table Version: %d, Packets: %d, Iteration: %d, Elapsed: %d ms", version, frames.size(), count, System.currentTimeMillis() - start ) );
+
+            // Resizing the id shifts the rest of the packet
+            start = System.currentTimeMillis();
+            for ( int i = 0; i < count; i++ )
+            {
+                for ( ByteBuf sample : frames )
+                {
+                    ByteBuf packet = sample.copy();
+                    EntityMap.rewrite( packet, 1000, 100, rewrites );
+                    packet.release();
+                }
+            }
+            System.out.println( String.format( "Resizing Rewrite Table Version: %d, Packets: %d, Iteration: %d, Elapsed: %d ms", version, frames.size(), count, System.currentTimeMillis() - start ) );
+
+            for ( ByteBuf sample : frames )
+            {
+                sample.release();
+            }
+        }
+
+        map = EntityMap.getEntityMap( ProtocolConstants.MINECRAFT_1_14 );
+        frame = createMetadata( 1001, 1001 );
+
+        start = System.currentTimeMillis();
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            ByteBuf packet = frame.retainedSlice();
+            map.rewriteClientbound( packet, 1000, 2000, ProtocolConstants.MINECRAFT_1_14 );
+            packet.release();
+        }
+        System.out.println( String.format( "Entity Metadata Iteration: %d, Elapsed: %d ms", BENCHMARK_COUNT, System.currentTimeMillis() - start ) );
+
+        frame.release();
+    }
+
+    private static List<EntityMap> getEntityMaps()
+    {
+        List<EntityMap> maps = new ArrayList<>();
+        for ( int version : ProtocolConstants.SUPPORTED_VERSION_IDS )
+        {
+            EntityMap map = EntityMap.getEntityMap( version );
+            if ( !maps.contains( map ) )
+            {
+                maps.add( map );
+            }
+        }
+        return maps;
+    }
+
+    // Packet laid out as the rewrite table expects, other is written where a field must be left alone, followed by a tail
+    private static ByteBuf createSample(ByteBufAllocator alloc, boolean direct, int packetId, EntityMap.Rewrite rewrite, int first, int second, int other)
+    {
+        ByteBuf buf = ( direct ) ? alloc.directBuffer( 16 ) : alloc.heapBuffer( 16 );
+        DefinedPacket.writeVarInt( packetId, buf );
+        switch ( rewrite )
+        {
+            case INT:
+                buf.writeInt( first );
+                break;
+            case INT_INT:
+                buf.writeInt( first );
+                buf.writeInt( second );
+                break;
+            case VARINT:
+                DefinedPacket.writeVarInt( first, buf );
+                break;
+            case VARINT_VARINT:
+                DefinedPacket.writeVarInt( first, buf );
+                DefinedPacket.writeVarInt( second, buf );
+                break;
+            case THIRD_VARINT:
+                DefinedPacket.writeVarInt( other, buf );
+                DefinedPacket.writeVarInt( other, buf );
+                DefinedPacket.writeVarInt( first, buf );
+                break;
+            case VARINT_ARRAY:
+                DefinedPacket.writeVarInt( 3, buf );
+                DefinedPacket.writeVarInt( first, buf );
+                DefinedPacket.writeVarInt( 5, buf );
+                DefinedPacket.writeVarInt( second, buf );
+                break;
+            case VARINT_VARINT_ARRAY:
+                DefinedPacket.writeVarInt( first, buf );
+                DefinedPacket.writeVarInt( 2, buf );
+                DefinedPacket.writeVarInt( second, buf );
+                DefinedPacket.writeVarInt( 5, buf );
+                break;
+            default:
+                throw new IllegalArgumentException( rewrite.toString() );
+        }
+        for ( int i = 0; i < 300; i++ )
+        {
+            buf.writeByte( i );
+        }
+        return buf;
+    }
+
+    // Entity Metadata with a chat entry, an item with nbt, a fishing hook and a firework
+    private static ByteBuf createMetadata(int hooked, int attached)
+    {
+        ByteBuf buf = Unpooled.directBuffer();
+        DefinedPacket.writeVarInt( ENTITY_METADATA_1_14, buf );
+        DefinedPacket.writeVarInt( 5, buf );
+
+        buf.writeByte( 0 );
+        DefinedPacket.writeVarInt( 0, buf ); // byte
+        buf.writeByte( 1 );
+
+        buf.writeByte( 2 );
+        DefinedPacket.writeVarInt( 5, buf ); // optional chat
+        buf.writeBoolean( true );
+        DefinedPacket.writeString( "{\"text\":\"hook\"}", buf );
+
+        buf.writeByte( 6 );
+        DefinedPacket.writeVarInt( 6, buf ); // slot
+        buf.writeBoolean( true );
+        DefinedPacket.writeVarInt( 1, buf ); // item
+        buf.writeByte( 1 ); // count
+        buf.writeByte( 10 ); // compound
+        buf.writeShort( 0 );
+        buf.writeByte( 8 ); // string
+        buf.writeShort( 1 );
+        buf.writeByte( 'a' );
+        buf.writeShort( 1 );
+        buf.writeByte( 'b' );
+        buf.writeByte( 9 ); // list
+        buf.writeShort( 1 );
+        buf.writeByte( 'l' );
+        buf.writeByte( 3 ); // int
+        buf.writeInt( 2 );
+        buf.writeInt( 100 );
+        buf.writeInt( 200 );
+        buf.writeByte( 0 ); // end
+
+        buf.writeByte( 7 );
+        DefinedPacket.writeVarInt( 1, buf ); // varint
+        DefinedPacket.writeVarInt( hooked, buf );
+
+        buf.writeByte( 8 );
+        DefinedPacket.writeVarInt( 17, buf ); // optional varint
+        DefinedPacket.writeVarInt( attached, buf );
+
+        buf.writeByte( 0xFF );
+
+        return buf;
+    }
+
+    private static ByteBuf createVarIntPacket(int... values)
+    {
+        ByteBuf buf = Unpooled.directBuffer();
+        for ( int value : values )
+        {
+            DefinedPacket.writeVarInt( value, buf );
+        }
+
+        return buf;
+    }
+
+    private static ByteBuf createVelocity(int entityId)
+    {
+        ByteBuf buf = Unpooled.directBuffer();
+        DefinedPacket.writeVarInt( ENTITY_VELOCITY, buf );
+        DefinedPacket.writeVarInt( entityId, buf );
+        buf.writeShort( 1 );
+        buf.writeShort( 2 );
+        buf.writeShort( 3 );
+
+        return buf;
+    }
+}
@@ -0,0 +1,74 @@
+package net.md_5.bungee.netty;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChannelWrapperTest
+{
+
+    private static final int MAX_BUFFERED_PACKETS = 64;
+    private EmbeddedChannel channel;
+    private ChannelWrapper wrapper;
+
+    @Before
+    public void setUp()
+    {
+        channel = new EmbeddedChannel( new ChannelInboundHandlerAdapter() )
+        {
+            @Override
+            protected SocketAddress remoteAddress0()
+            {
+                // ChannelWrapper expects a real address
+                return new InetSocketAddress( InetAddress.getLoopbackAddress(), 25565 );
+            }
+        };
+        wrapper = new ChannelWrapper( channel.pipeline().firstContext() );
+    }
+
+    @After
+    public void tearDown()
+    {
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testWriteBuffered()
+    {
+        writeBuffered( 3 );
+        Assert.assertEquals( 0, channel.outboundMessages().size() );
+
+        wrapper.flush();
+        Assert.assertEquals( 3, channel.outboundMessages().size() );
+    }
+
+    @Test
+    public void testWriteFlushesBuffered()
+    {
+        writeBuffered( 3 );
+        wrapper.write( Unpooled.buffer() );
+        Assert.assertEquals( 4, channel.outboundMessages().size() );
+
+        // The packets flushed by write no longer count towards the limit
+        writeBuffered( MAX_BUFFERED_PACKETS - 1 );
+        Assert.assertEquals( 4, channel.outboundMessages().size() );
+
+        writeBuffered( 1 );
+        Assert.assertEquals( 4 + MAX_BUFFERED_PACKETS, channel.outboundMessages().size() );
+    }
+
+    private void writeBuffered(int count)
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            wrapper.writeBuffered( Unpooled.buffer() );
+        }
+    }
+}
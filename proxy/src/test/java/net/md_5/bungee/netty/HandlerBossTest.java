@@ -0,0 +1,266 @@
+package net.md_5.bungee.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.local.LocalChannel;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import net.md_5.bungee.api.Callback;
+import net.md_5.bungee.api.plugin.Event;
+import net.md_5.bungee.api.plugin.Listener;
+import net.md_5.bungee.api.plugin.PluginManager;
+import net.md_5.bungee.connection.PingHandler;
+import net.md_5.bungee.event.EventBus;
+import net.md_5.bungee.event.EventHandler;
+import net.md_5.bungee.protocol.PacketWrapper;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HandlerBossTest
+{
+
+    private final List<String> handled = new ArrayList<>();
+    private final RecordingHandler handler = new RecordingHandler();
+    private final HandlerBoss boss = new HandlerBoss();
+    private EmbeddedChannel channel;
+
+    @Before
+    public void setUp()
+    {
+        boss.setHandler( handler );
+        channel = new EmbeddedChannel( boss )
+        {
+            @Override
+            protected SocketAddress remoteAddress0()
+            {
+                // ChannelWrapper expects a real address
+                return new InetSocketAddress( InetAddress.getLoopbackAddress(), 25565 );
+            }
+        };
+    }
+
+    @Test
+    public void testPauseQueuesInOrder()
+    {
+        write( 1 );
+        boss.pause();
+        Assert.assertFalse( channel.config().isAutoRead() );
+
+        write( 2 );
+        write( 3 );
+        Assert.assertEquals( "[1]", handled.toString() );
+
+        boss.resume();
+        Assert.assertEquals( "[1, 2, 3]", handled.toString() );
+        Assert.assertTrue( channel.config().isAutoRead() );
+
+        write( 4 );
+        Assert.assertEquals( "[1, 2, 3, 4]", handled.toString() );
+    }
+
+    @Test
+    public void testNestedPause()
+    {
+        boss.pause();
+        boss.pause();
+        write( 1 );
+
+        boss.resume();
+        Assert.assertEquals( "[]", handled.toString() );
+        Assert.assertFalse( channel.config().isAutoRead() );
+
+        boss.resume();
+        Assert.assertEquals( "[1]", handled.toString() );
+        Assert.assertTrue( channel.config().isAutoRead() );
+    }
+
+    @Test
+    public void testPauseWhileResuming()
+    {
+        handler.pauseOn = 2;
+        boss.pause();
+        write( 1 );
+        write( 2 );
+        write( 3 );
+
+        // Handling 2 pauses again, so 3 has to stay queued
+        boss.resume();
+        Assert.assertEquals( "[1, 2]", handled.toString() );
+        Assert.assertFalse( channel.config().isAutoRead() );
+
+        boss.resume();
+        Assert.assertEquals( "[1, 2, 3]", handled.toString() );
+    }
+
+    @Test
+    public void testReleaseOnClose()
+    {
+        boss.pause();
+        ByteBuf first = write( 1 );
+        ByteBuf second = write( 2 );
+        Assert.assertEquals( 1, first.refCnt() );
+
+        channel.close();
+        Assert.assertEquals( 0, first.refCnt() );
+        Assert.assertEquals( 0, second.refCnt() );
+
+        // Finishing the event after the close must not handle or release anything again
+        boss.resume();
+        Assert.assertEquals( "[]", handled.toString() );
+    }
+
+    @Test
+    public void testCallEvent() throws Exception
+    {
+        final PluginManager pluginManager = new PluginManager( null, null, new EventBus() );
+        BlockingListener listener = new BlockingListener();
+        pluginManager.registerListener( null, listener );
+
+        // A real event loop, as the callback is handed back to it from another thread
+        final DefaultEventLoop eventLoop = new DefaultEventLoop();
+        try
+        {
+            final LocalChannel local = new LocalChannel();
+            local.pipeline().addLast( new HandlerBoss() );
+            local.pipeline().get( HandlerBoss.class ).setHandler( handler );
+            eventLoop.register( local ).sync();
+
+            final CountDownLatch done = new CountDownLatch( 1 );
+            final List<Boolean> callbackInEventLoop = new ArrayList<>();
+            eventLoop.submit( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    local.pipeline().fireChannelActive();
+                    handler.channel.callEvent( pluginManager, new TestEvent(), new Callback<TestEvent>()
+                    {
+                        @Override
+                        public void done(TestEvent result, Throwable error)
+                        {
+                            callbackInEventLoop.add( eventLoop.inEventLoop() );
+                            handled.add( "event" );
+                            done.countDown();
+                        }
+                    } );
+
+                    // Packets after the one which called the event wait for it
+                    local.pipeline().fireChannelRead( packet( 1 ) );
+                }
+            } ).sync();
+            Assert.assertEquals( "[]", handled.toString() );
+            Assert.assertFalse( local.config().isAutoRead() );
+
+            listener.release.countDown();
+            Assert.assertTrue( done.await( 5, TimeUnit.SECONDS ) );
+            // Wait for the rest of the task which ran the callback
+            eventLoop.submit( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                }
+            } ).sync();
+
+            Assert.assertEquals( "[event, 1]", handled.toString() );
+            Assert.assertEquals( "[true]", callbackInEventLoop.toString() );
+            Assert.assertTrue( local.config().isAutoRead() );
+            local.close().sync();
+        } finally
+        {
+            eventLoop.shutdownGracefully().sync();
+        }
+    }
+
+    @Test
+    public void testCallEventWithoutAsyncHandlers()
+    {
+        PluginManager pluginManager = new PluginManager( null, null, new EventBus() );
+        handler.channel.callEvent( pluginManager, new TestEvent(), new Callback<TestEvent>()
+        {
+            @Override
+            public void done(TestEvent result, Throwable error)
+            {
+                handled.add( "event" );
+            }
+        } );
+
+        // Nothing may block, so the callback has already run and reading never paused
+        Assert.assertEquals( "[event]", handled.toString() );
+        Assert.assertTrue( channel.config().isAutoRead() );
+    }
+
+    private ByteBuf write(int id)
+    {
+        PacketWrapper packet = packet( id );
+        channel.writeInbound( packet );
+        return packet.buf;
+    }
+
+    private static PacketWrapper packet(int id)
+    {
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeByte( id );
+        return new PacketWrapper( null, buf );
+    }
+
+    public static class TestEvent extends Event
+    {
+    }
+
+    public static class BlockingListener implements Listener
+    {
+
+        private final CountDownLatch release = new CountDownLatch( 1 );
+
+        @EventHandler(async = true)
+        public void onEvent(TestEvent event) throws InterruptedException
+        {
+            release.await();
+        }
+    }
+
+    // A ping handler, as HandlerBoss only logs other handlers connecting, which needs a running proxy
+    private final class RecordingHandler extends PingHandler
+    {
+
+        private ChannelWrapper channel;
+        private int pauseOn = -1;
+
+        private RecordingHandler()
+        {
+            super( null, null, 0 );
+        }
+
+        @Override
+        public void connected(ChannelWrapper channel) throws Exception
+        {
+            this.channel = channel;
+        }
+
+        @Override
+        public void handle(PacketWrapper packet) throws Exception
+        {
+            int id = packet.buf.getByte( 0 );
+            handled.add( String.valueOf( id ) );
+            if ( id == pauseOn )
+            {
+                boss.pause();
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return "RecordingHandler";
+        }
+    }
+}
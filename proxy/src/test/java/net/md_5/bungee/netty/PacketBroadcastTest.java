@@ -0,0 +1,148 @@
+package net.md_5.bungee.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import net.md_5.bungee.compress.PacketCompressor;
+import net.md_5.bungee.protocol.MinecraftEncoder;
+import net.md_5.bungee.protocol.Protocol;
+import net.md_5.bungee.protocol.ProtocolConstants;
+import net.md_5.bungee.protocol.Varint21LengthFieldPrepender;
+import net.md_5.bungee.protocol.packet.Chat;
+import net.md_5.bungee.protocol.packet.Kick;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class PacketBroadcastTest
+{
+
+    private static final int CHANNEL_COUNT = 1 << 10;
+    private static final int BENCHMARK_COUNT = 1 << 4;
+    private static final Chat PACKET = new Chat( "{\"text\":\"" + new String( new char[ 512 ] ).replace( '\0', 'a' ) + "\"}" );
+
+    @Test
+    public void testBroadcast()
+    {
+        int[] versions = new int[]
+        {
+            ProtocolConstants.MINECRAFT_1_8, ProtocolConstants.MINECRAFT_1_15, ProtocolConstants.MINECRAFT_1_15 // Repeated to reuse the cached encoding
+        };
+        int[] thresholds = new int[]
+        {
+            -1, 256, 1024
+        };
+
+        PacketBroadcast broadcast = new PacketBroadcast( PACKET );
+        for ( int version : versions )
+        {
+            for ( int threshold : thresholds )
+            {
+                EmbeddedChannel expected = createChannel( version, threshold );
+                expected.writeOutbound( PACKET );
+
+                EmbeddedChannel actual = createChannel( version, threshold );
+                broadcast.send( new ChannelWrapper( actual.pipeline().firstContext() ) );
+
+                ByteBuf expectedBuf = expected.readOutbound();
+                ByteBuf actualBuf = actual.readOutbound();
+                Assert.assertEquals( expectedBuf, actualBuf );
+
+                expectedBuf.release();
+                actualBuf.release();
+                Assert.assertFalse( expected.finish() );
+                Assert.assertFalse( actual.finish() );
+            }
+        }
+        broadcast.release();
+    }
+
+    @Test
+    public void testLogin()
+    {
+        EmbeddedChannel channel = createChannel( ProtocolConstants.MINECRAFT_1_15, 256 );
+        channel.pipeline().get( MinecraftEncoder.class ).setProtocol( Protocol.LOGIN );
+
+        // Not in the game protocol, so this must fall back to encoding the packet normally
+        PacketBroadcast broadcast = new PacketBroadcast( new Kick( "{\"text\":\"\"}" ) );
+        broadcast.send( new ChannelWrapper( channel.pipeline().firstContext() ) );
+        broadcast.release();
+
+        ByteBuf buf = channel.readOutbound();
+        Assert.assertNotNull( buf );
+        buf.release();
+        Assert.assertFalse( channel.finish() );
+    }
+
+    @Test
+    @Ignore("Benchmark")
+    public void testBenchmark()
+    {
+        EmbeddedChannel[] channels = new EmbeddedChannel[ CHANNEL_COUNT ];
+        ChannelWrapper[] wrappers = new ChannelWrapper[ CHANNEL_COUNT ];
+        for ( int i = 0; i < channels.length; i++ )
+        {
+            channels[i] = createChannel( ProtocolConstants.MINECRAFT_1_15, 256 );
+            wrappers[i] = new ChannelWrapper( channels[i].pipeline().firstContext() );
+        }
+
+        long start = System.currentTimeMillis();
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            for ( ChannelWrapper wrapper : wrappers )
+            {
+                wrapper.write( PACKET );
+            }
+            drain( channels );
+        }
+        System.out.println( String.format( "Per Channel Iteration: %d, Elapsed: %d ms", BENCHMARK_COUNT, System.currentTimeMillis() - start ) );
+
+        start = System.currentTimeMillis();
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            PacketBroadcast broadcast = new PacketBroadcast( PACKET );
+            for ( ChannelWrapper wrapper : wrappers )
+            {
+                broadcast.send( wrapper );
+            }
+            broadcast.release();
+            drain( channels );
+        }
+        System.out.println( String.format( "Broadcast Iteration: %d, Elapsed: %d ms", BENCHMARK_COUNT, System.currentTimeMillis() - start ) );
+    }
+
+    private static void drain(EmbeddedChannel[] channels)
+    {
+        for ( EmbeddedChannel channel : channels )
+        {
+            ByteBuf buf;
+            while ( ( buf = channel.readOutbound() ) != null )
+            {
+                buf.release();
+            }
+        }
+    }
+
+    private static EmbeddedChannel createChannel(int version, int threshold)
+    {
+        EmbeddedChannel channel = new EmbeddedChannel()
+        {
+            @Override
+            public SocketAddress remoteAddress()
+            {
+                return InetSocketAddress.createUnresolved( "localhost", 25565 );
+            }
+        };
+        channel.pipeline().addLast( PipelineUtils.FRAME_PREPENDER, new Varint21LengthFieldPrepender() );
+        channel.pipeline().addLast( PipelineUtils.PACKET_ENCODER, new MinecraftEncoder( Protocol.GAME, true, version ) );
+        if ( threshold != -1 )
+        {
+            PacketCompressor compressor = new PacketCompressor();
+            compressor.setThreshold( threshold );
+            channel.pipeline().addBefore( PipelineUtils.PACKET_ENCODER, "compress", compressor );
+        }
+
+        return channel;
+    }
+}
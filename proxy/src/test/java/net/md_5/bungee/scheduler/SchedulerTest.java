@@ -1,9 +1,14 @@
 package net.md_5.bungee.scheduler;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import net.md_5.bungee.api.plugin.DummyPlugin;
+import net.md_5.bungee.api.plugin.Plugin;
 import net.md_5.bungee.api.scheduler.ScheduledTask;
 import net.md_5.bungee.api.scheduler.TaskScheduler;
 import org.junit.Assert;
@@ -71,6 +76,128 @@ public class SchedulerTest
         Assert.assertTrue( b.get() );
     }
 
+    @Test
+    public void testFixedRate() throws InterruptedException
+    {
+        BungeeScheduler scheduler = new BungeeScheduler();
+        final AtomicInteger runs = new AtomicInteger();
+
+        // Sleeping between runs would only manage about 12 runs, as each one takes 30ms of the period
+        ScheduledTask task = scheduler.schedule( DummyPlugin.INSTANCE, new Runnable()
+        {
+
+            @Override
+            public void run()
+            {
+                runs.incrementAndGet();
+                sleep( 30 );
+            }
+        }, 0, 50, TimeUnit.MILLISECONDS );
+        Thread.sleep( 1000 );
+        task.cancel();
+
+        Assert.assertTrue( "Only ran " + runs.get() + " times", runs.get() >= 17 );
+        Assert.assertTrue( scheduler.getMaxLag( TimeUnit.NANOSECONDS ) >= scheduler.getAverageLag( TimeUnit.NANOSECONDS ) );
+    }
+
+    @Test
+    public void testNoOverlap() throws InterruptedException
+    {
+        TaskScheduler scheduler = new BungeeScheduler();
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger runs = new AtomicInteger();
+        final AtomicBoolean overlapped = new AtomicBoolean();
+
+        ScheduledTask task = scheduler.schedule( DummyPlugin.INSTANCE, new Runnable()
+        {
+
+            @Override
+            public void run()
+            {
+                if ( concurrent.incrementAndGet() > 1 )
+                {
+                    overlapped.set( true );
+                }
+                runs.incrementAndGet();
+                sleep( 100 );
+                concurrent.decrementAndGet();
+            }
+        }, 0, 10, TimeUnit.MILLISECONDS );
+        Thread.sleep( 500 );
+        task.cancel();
+
+        Assert.assertFalse( overlapped.get() );
+        // Missed runs are collapsed into one, rather than run all at once
+        Assert.assertTrue( "Ran " + runs.get() + " times", runs.get() <= 6 );
+    }
+
+    @Test
+    public void testIdleThreads() throws InterruptedException
+    {
+        TaskScheduler scheduler = new BungeeScheduler();
+        final CountDownLatch latch = new CountDownLatch( 200 );
+
+        for ( int i = 0; i < 200; i++ )
+        {
+            scheduler.schedule( DummyPlugin.INSTANCE, new Runnable()
+            {
+
+                @Override
+                public void run()
+                {
+                    latch.countDown();
+                }
+            }, 10, 60000, TimeUnit.MILLISECONDS );
+        }
+        Assert.assertTrue( latch.await( 5, TimeUnit.SECONDS ) );
+        Thread.sleep( 100 );
+
+        // Waiting tasks no longer hold a thread each
+        Assert.assertEquals( 0, ( (ThreadPoolExecutor) DummyPlugin.INSTANCE.getExecutorService() ).getActiveCount() );
+        Assert.assertEquals( 200, scheduler.cancel( DummyPlugin.INSTANCE ) );
+    }
+
+    @Test
+    public void testRejected() throws InterruptedException
+    {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        Plugin plugin = new Plugin()
+        {
+            @Override
+            public ExecutorService getExecutorService()
+            {
+                return executor;
+            }
+        };
+
+        BungeeScheduler scheduler = new BungeeScheduler();
+        BungeeTask task = (BungeeTask) scheduler.schedule( plugin, new Runnable()
+        {
+
+            @Override
+            public void run()
+            {
+            }
+        }, 10, 10, TimeUnit.MILLISECONDS );
+        Thread.sleep( 250 );
+
+        // A task the executor will not take is cancelled, rather than left scheduled without ever running
+        Assert.assertFalse( task.getRunning().get() );
+        Assert.assertEquals( 0, scheduler.cancel( plugin ) );
+    }
+
+    private static void sleep(long millis)
+    {
+        try
+        {
+            Thread.sleep( millis );
+        } catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private ScheduledTask setup(TaskScheduler scheduler, final AtomicBoolean hasRun)
     {
         return scheduler.schedule( DummyPlugin.INSTANCE, new Runnable()
@@ -0,0 +1,242 @@
+package net.md_5.bungee.tab;
+
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import net.md_5.bungee.UserConnection;
+import net.md_5.bungee.connection.InitialHandler;
+import net.md_5.bungee.connection.LoginResult;
+import net.md_5.bungee.protocol.ProtocolConstants;
+import net.md_5.bungee.protocol.packet.PlayerListItem;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class TabListTest
+{
+
+    private static final int BENCHMARK_COUNT = 1 << 10;
+    private static final Function<UUID, UserConnection> NO_PLAYERS = new Function<UUID, UserConnection>()
+    {
+        @Override
+        public UserConnection apply(UUID input)
+        {
+            return null;
+        }
+    };
+
+    @Test
+    public void testRewrite()
+    {
+        for ( PlayerListItem.Action action : PlayerListItem.Action.values() )
+        {
+            PlayerListItem packet = createPacket( action, 10 );
+            ByteBuf in = Unpooled.buffer();
+            packet.write( in, ProtocolConstants.Direction.TO_CLIENT, ProtocolConstants.MINECRAFT_1_15 );
+            ByteBuf out = Unpooled.buffer();
+            List<UUID> uuids = new ArrayList<>();
+
+            Assert.assertEquals( action, TabList.rewrite( in.duplicate(), out, uuids, NO_PLAYERS ) );
+            // Entries of unknown players are copied unchanged
+            Assert.assertEquals( in, out );
+            Assert.assertEquals( packet.getItems().length, uuids.size() );
+            for ( int i = 0; i < uuids.size(); i++ )
+            {
+                Assert.assertEquals( packet.getItems()[i].getUuid(), uuids.get( i ) );
+            }
+
+            in.release();
+            out.release();
+        }
+    }
+
+    @Test
+    public void testRewriteAddPlayer() throws ReflectiveOperationException
+    {
+        PlayerListItem packet = createPacket( PlayerListItem.Action.ADD_PLAYER, 3 );
+        PlayerListItem.Item[] items = packet.getItems();
+        final UserConnection profiled = createPlayer( new LoginResult( "id", "Profiled", new LoginResult.Property[]
+        {
+            new LoginResult.Property( "textures", "online", "signed" ), new LoginResult.Property( "unsigned", "online", null )
+        } ) );
+        final UserConnection unprofiled = createPlayer( null );
+        final Map<UUID, UserConnection> players = new HashMap<>();
+        players.put( items[0].getUuid(), profiled );
+        players.put( items[1].getUuid(), unprofiled );
+
+        List<UUID> uuids = new ArrayList<>();
+        PlayerListItem rewritten = rewrite( packet, uuids, Functions.forMap( players, null ) );
+
+        Assert.assertEquals( Arrays.asList( profiled.getUniqueId(), unprofiled.getUniqueId(), items[2].getUuid() ), uuids );
+        PlayerListItem.Item[] result = rewritten.getItems();
+        Assert.assertEquals( profiled.getUniqueId(), result[0].getUuid() );
+        Assert.assertEquals( unprofiled.getUniqueId(), result[1].getUuid() );
+        Assert.assertEquals( items[2].getUuid(), result[2].getUuid() );
+
+        // Properties come from the login profile, or are dropped without one
+        Assert.assertArrayEquals( new String[][]
+        {
+            {
+                "textures", "online", "signed"
+            },
+            {
+                "unsigned", "online"
+            }
+        }, result[0].getProperties() );
+        Assert.assertEquals( 0, result[1].getProperties().length );
+        Assert.assertArrayEquals( items[2].getProperties(), result[2].getProperties() );
+
+        // Everything else is left alone
+        for ( int i = 0; i < items.length; i++ )
+        {
+            Assert.assertEquals( items[i].getUsername(), result[i].getUsername() );
+            Assert.assertEquals( items[i].getGamemode(), result[i].getGamemode() );
+            Assert.assertEquals( items[i].getPing(), result[i].getPing() );
+            Assert.assertEquals( items[i].getDisplayName(), result[i].getDisplayName() );
+        }
+
+        Assert.assertEquals( items[0].getGamemode(), profiled.getGamemode() );
+        Assert.assertEquals( items[0].getPing(), profiled.getPing() );
+        Assert.assertEquals( items[1].getGamemode(), unprofiled.getGamemode() );
+        Assert.assertEquals( items[1].getPing(), unprofiled.getPing() );
+    }
+
+    @Test
+    public void testRewriteUpdate() throws ReflectiveOperationException
+    {
+        final UserConnection player = createPlayer( null );
+        PlayerListItem packet = createPacket( PlayerListItem.Action.UPDATE_GAMEMODE, 2 );
+        packet.getItems()[0].setGamemode( 3 );
+        Function<UUID, UserConnection> players = Functions.forMap( Collections.singletonMap( packet.getItems()[0].getUuid(), player ), null );
+
+        PlayerListItem rewritten = rewrite( packet, new ArrayList<UUID>(), players );
+        Assert.assertEquals( player.getUniqueId(), rewritten.getItems()[0].getUuid() );
+        Assert.assertEquals( 3, rewritten.getItems()[0].getGamemode() );
+        Assert.assertEquals( packet.getItems()[1].getUuid(), rewritten.getItems()[1].getUuid() );
+        Assert.assertEquals( 3, player.getGamemode() );
+
+        packet.setAction( PlayerListItem.Action.UPDATE_LATENCY );
+        packet.getItems()[0].setPing( 250 );
+
+        rewritten = rewrite( packet, new ArrayList<UUID>(), players );
+        Assert.assertEquals( player.getUniqueId(), rewritten.getItems()[0].getUuid() );
+        Assert.assertEquals( 250, rewritten.getItems()[0].getPing() );
+        Assert.assertEquals( 250, player.getPing() );
+    }
+
+    @Test
+    @Ignore("Benchmark")
+    public void testBenchmark()
+    {
+        ByteBuf in = Unpooled.directBuffer();
+        createPacket( PlayerListItem.Action.ADD_PLAYER, 500 ).write( in, ProtocolConstants.Direction.TO_CLIENT, ProtocolConstants.MINECRAFT_1_15 );
+        ByteBuf out = Unpooled.directBuffer();
+
+        long start = System.currentTimeMillis();
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            out.clear();
+            PlayerListItem packet = new PlayerListItem();
+            packet.read( in.duplicate(), ProtocolConstants.Direction.TO_CLIENT, ProtocolConstants.MINECRAFT_1_15 );
+            for ( PlayerListItem.Item item : packet.getItems() )
+            {
+                NO_PLAYERS.apply( item.getUuid() );
+            }
+            packet.write( out, ProtocolConstants.Direction.TO_CLIENT, ProtocolConstants.MINECRAFT_1_15 );
+        }
+        System.out.println( String.format( "Decode Iteration: %d, Elapsed: %d ms", BENCHMARK_COUNT, System.currentTimeMillis() - start ) );
+
+        start = System.currentTimeMillis();
+        for ( int i = 0; i < BENCHMARK_COUNT; i++ )
+        {
+            out.clear();
+            TabList.rewrite( in.duplicate(), out, new ArrayList<UUID>(), NO_PLAYERS );
+        }
+        System.out.println( String.format( "Streaming Iteration: %d, Elapsed: %d ms", BENCHMARK_COUNT, System.currentTimeMillis() - start ) );
+
+        in.release();
+        out.release();
+    }
+
+    private static PlayerListItem rewrite(PlayerListItem packet, List<UUID> uuids, Function<UUID, UserConnection> players)
+    {
+        ByteBuf in = Unpooled.buffer();
+        packet.write( in, ProtocolConstants.Direction.TO_CLIENT, ProtocolConstants.MINECRAFT_1_15 );
+        ByteBuf out = Unpooled.buffer();
+        Assert.assertEquals( packet.getAction(), TabList.rewrite( in, out, uuids, players ) );
+        Assert.assertFalse( in.isReadable() );
+
+        PlayerListItem rewritten = new PlayerListItem();
+        rewritten.read( out, ProtocolConstants.Direction.TO_CLIENT, ProtocolConstants.MINECRAFT_1_15 );
+        Assert.assertFalse( out.isReadable() );
+
+        in.release();
+        out.release();
+        return rewritten;
+    }
+
+    private static UserConnection createPlayer(LoginResult profile) throws ReflectiveOperationException
+    {
+        InitialHandler connection = allocate( InitialHandler.class );
+        setField( connection, "uniqueId", UUID.randomUUID() );
+        setField( connection, "loginProfile", profile );
+
+        UserConnection player = allocate( UserConnection.class );
+        setField( player, "pendingConnection", connection );
+        return player;
+    }
+
+    // Both connections need a running proxy when constructed, so skip their constructors
+    private static <T> T allocate(Class<T> clazz) throws ReflectiveOperationException
+    {
+        Field theUnsafe = Class.forName( "sun.misc.Unsafe" ).getDeclaredField( "theUnsafe" );
+        theUnsafe.setAccessible( true );
+        Object unsafe = theUnsafe.get( null );
+        return clazz.cast( unsafe.getClass().getMethod( "allocateInstance", Class.class ).invoke( unsafe, clazz ) );
+    }
+
+    private static void setField(Object object, String name, Object value) throws ReflectiveOperationException
+    {
+        Field field = object.getClass().getDeclaredField( name );
+        field.setAccessible( true );
+        field.set( object, value );
+    }
+
+    private static PlayerListItem createPacket(PlayerListItem.Action action, int count)
+    {
+        PlayerListItem.Item[] items = new PlayerListItem.Item[ count ];
+        for ( int i = 0; i < items.length; i++ )
+        {
+            PlayerListItem.Item item = new PlayerListItem.Item();
+            item.setUuid( UUID.randomUUID() );
+            item.setUsername( "Player" + i );
+            item.setProperties( new String[][]
+            {
+                {
+                    "textures", "eyJ0aW1lc3RhbXAiOjE1ODAwMDAwMDAwMDAsInByb2ZpbGVJZCI6ImFiY2RlZiJ9", "c2lnbmF0dXJl"
+                },
+                {
+                    "unsigned", "value"
+                }
+            } );
+            item.setGamemode( i % 4 );
+            item.setPing( i * 100 );
+            item.setDisplayName( ( i % 2 == 0 ) ? "{\"text\":\"Player " + i + "\"}" : null );
+            items[i] = item;
+        }
+
+        PlayerListItem packet = new PlayerListItem();
+        packet.setAction( action );
+        packet.setItems( items );
+        return packet;
+    }
+}
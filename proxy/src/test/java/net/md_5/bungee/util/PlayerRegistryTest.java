@@ -0,0 +1,229 @@
+package net.md_5.bungee.util;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class PlayerRegistryTest
+{
+
+    private static final int PLAYERS = 1000;
+    private static final int READERS = 4;
+    private static final long BENCHMARK_TIME = TimeUnit.MILLISECONDS.toNanos( 500 );
+
+    @Test
+    public void testRegistry()
+    {
+        PlayerRegistry<String> registry = new PlayerRegistry<>();
+        UUID uuid = UUID.randomUUID();
+        UUID offlineUUID = UUID.randomUUID();
+
+        registry.add( "md_5", uuid, offlineUUID, "first" );
+        Assert.assertEquals( "first", registry.get( "MD_5" ) );
+        Assert.assertEquals( "first", registry.get( uuid ) );
+        Assert.assertEquals( "first", registry.getByOfflineUUID( offlineUUID ) );
+        Assert.assertEquals( 1, registry.size() );
+
+        // A second login with the same name replaces the first, which must not remove it when it disconnects
+        registry.add( "MD_5", uuid, offlineUUID, "second" );
+        Assert.assertFalse( registry.remove( "md_5", uuid, offlineUUID, "first" ) );
+        Assert.assertEquals( "second", registry.get( uuid ) );
+        Assert.assertEquals( 1, registry.getPlayers().size() );
+
+        Assert.assertTrue( registry.remove( "md_5", uuid, offlineUUID, "second" ) );
+        Assert.assertNull( registry.get( "md_5" ) );
+        Assert.assertNull( registry.get( uuid ) );
+        Assert.assertNull( registry.getByOfflineUUID( offlineUUID ) );
+        Assert.assertTrue( registry.getPlayers().isEmpty() );
+    }
+
+    @Test
+    public void testIterateWhileModified()
+    {
+        PlayerRegistry<String> registry = new PlayerRegistry<>();
+        for ( int i = 0; i < 10; i++ )
+        {
+            registry.add( "Player" + i, UUID.randomUUID(), UUID.randomUUID(), "Player" + i );
+        }
+
+        Iterator<String> it = registry.getPlayers().iterator();
+        it.next();
+        registry.add( "Late", UUID.randomUUID(), UUID.randomUUID(), "Late" );
+        while ( it.hasNext() )
+        {
+            it.next();
+        }
+    }
+
+    @Test
+    @Ignore("Benchmark")
+    public void testBenchmark() throws Exception
+    {
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+        final Map<String, String> byName = new CaseInsensitiveMap<>();
+        final Map<UUID, String> byUUID = new HashMap<>();
+        final PlayerRegistry<String> registry = new PlayerRegistry<>();
+        final String[] names = new String[ PLAYERS ];
+        final UUID[] uuids = new UUID[ PLAYERS ];
+        for ( int i = 0; i < PLAYERS; i++ )
+        {
+            names[i] = "Player" + i;
+            uuids[i] = UUID.randomUUID();
+            byName.put( names[i], names[i] );
+            byUUID.put( uuids[i], names[i] );
+            registry.add( names[i], uuids[i], uuids[i], names[i] );
+        }
+
+        benchmark( "Locked", new Players()
+        {
+            @Override
+            public void login(int i)
+            {
+                lock.writeLock().lock();
+                try
+                {
+                    byName.remove( names[i] );
+                    byUUID.remove( uuids[i] );
+                    byName.put( names[i], names[i] );
+                    byUUID.put( uuids[i], names[i] );
+                } finally
+                {
+                    lock.writeLock().unlock();
+                }
+            }
+
+            @Override
+            public void lookup(int i)
+            {
+                lock.readLock().lock();
+                try
+                {
+                    byName.get( names[i] );
+                    byUUID.get( uuids[i] );
+                } finally
+                {
+                    lock.readLock().unlock();
+                }
+            }
+
+            @Override
+            public int getPlayers()
+            {
+                lock.readLock().lock();
+                try
+                {
+                    return new HashSet<>( byName.values() ).size();
+                } finally
+                {
+                    lock.readLock().unlock();
+                }
+            }
+        } );
+
+        benchmark( "Registry", new Players()
+        {
+            @Override
+            public void login(int i)
+            {
+                registry.remove( names[i], uuids[i], uuids[i], names[i] );
+                registry.add( names[i], uuids[i], uuids[i], names[i] );
+            }
+
+            @Override
+            public void lookup(int i)
+            {
+                registry.get( names[i] );
+                registry.get( uuids[i] );
+            }
+
+            @Override
+            public int getPlayers()
+            {
+                int count = 0;
+                for ( String player : registry.getPlayers() )
+                {
+                    count++;
+                }
+                return count;
+            }
+        } );
+    }
+
+    private static void benchmark(String name, final Players players) throws Exception
+    {
+        final AtomicBoolean running = new AtomicBoolean( true );
+        final AtomicLong lookups = new AtomicLong();
+        final AtomicLong logins = new AtomicLong();
+        final CountDownLatch done = new CountDownLatch( READERS + 1 );
+
+        Thread login = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                long count = 0;
+                while ( running.get() )
+                {
+                    players.login( (int) ( count++ % PLAYERS ) );
+                }
+                logins.addAndGet( count );
+                done.countDown();
+            }
+        };
+        login.start();
+
+        for ( int t = 0; t < READERS; t++ )
+        {
+            new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    long count = 0;
+                    while ( running.get() )
+                    {
+                        players.lookup( (int) ( count++ % PLAYERS ) );
+                        if ( count % PLAYERS == 0 )
+                        {
+                            // A plugin task walking all players once per tick
+                            players.getPlayers();
+                        }
+                    }
+                    lookups.addAndGet( count );
+                    done.countDown();
+                }
+            }.start();
+        }
+
+        long start = System.nanoTime();
+        while ( System.nanoTime() - start < BENCHMARK_TIME )
+        {
+            Thread.sleep( 10 );
+        }
+        running.set( false );
+        Assert.assertTrue( done.await( 10, TimeUnit.SECONDS ) );
+
+        System.out.println( String.format( "%s Logins: %d, Lookups: %d, Elapsed: %d ms", name, logins.get(), lookups.get(), TimeUnit.NANOSECONDS.toMillis( BENCHMARK_TIME ) ) );
+    }
+
+    private interface Players
+    {
+
+        void login(int i);
+
+        void lookup(int i);
+
+        int getPlayers();
+    }
+}